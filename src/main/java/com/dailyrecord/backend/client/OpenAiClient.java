@@ -0,0 +1,304 @@
+package com.dailyrecord.backend.client;
+
+import com.dailyrecord.backend.stats.LatencyStats;
+import com.dailyrecord.backend.stats.StatsSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+// OpenAI Chat Completions 호출 전용 클라이언트.
+// 연결 풀/타임아웃이 설정된 RestTemplate 위에 분당 요청/토큰 한도, 동시 호출 제한(bulkhead), 서킷 브레이커,
+// 429/5xx 및 네트워크 오류에 대한 지터 지수 백오프 재시도(Retry-After 우선)를 적용한다.
+// 한도는 재시도를 포함해 실제로 보내는 요청마다 받는다.
+@Component
+public class OpenAiClient implements StatsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenAiClient.class);
+
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_TYPE = new ParameterizedTypeReference<>() {};
+
+    private final RestTemplate restTemplate;
+    private final RestTemplate streamingRestTemplate;
+    private final ObjectMapper objectMapper;
+    private final OpenAiRateLimiter rateLimiter;
+    private final String apiKey;
+    private final String endpoint;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long maxRetryAfterMs;
+    private final long bulkheadWaitMs;
+    private final Semaphore bulkhead;
+    private final int maxConcurrentCalls;
+    private final CircuitBreaker circuitBreaker;
+
+    private final LatencyStats latency = new LatencyStats();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder bulkheadRejected = new LongAdder();
+
+    public OpenAiClient(@Qualifier("openAiRestTemplate") RestTemplate restTemplate,
+                        @Qualifier("openAiStreamingRestTemplate") RestTemplate streamingRestTemplate,
+                        ObjectMapper objectMapper, OpenAiRateLimiter rateLimiter,
+                        @Value("${openai.api.key}") String apiKey,
+                        @Value("${openai.api.endpoint}") String endpoint,
+                        @Value("${openai.client.retry.max-attempts:3}") int maxAttempts,
+                        @Value("${openai.client.retry.initial-backoff-ms:500}") long initialBackoffMs,
+                        @Value("${openai.client.retry.max-backoff-ms:8000}") long maxBackoffMs,
+                        @Value("${openai.client.retry.max-retry-after-ms:30000}") long maxRetryAfterMs,
+                        @Value("${openai.client.bulkhead.max-concurrent-calls:16}") int maxConcurrentCalls,
+                        @Value("${openai.client.bulkhead.max-wait-ms:2000}") long bulkheadWaitMs,
+                        @Value("${openai.client.circuit-breaker.window-size:20}") int windowSize,
+                        @Value("${openai.client.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                        @Value("${openai.client.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                        @Value("${openai.client.circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+        this.restTemplate = restTemplate;
+        this.streamingRestTemplate = streamingRestTemplate;
+        this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+        this.apiKey = apiKey;
+        this.endpoint = endpoint;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.maxRetryAfterMs = maxRetryAfterMs;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.bulkheadWaitMs = bulkheadWaitMs;
+        this.circuitBreaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDurationMs);
+    }
+
+    // 일반 응답 (JSON 본문을 Map 으로 반환). memberId 별로 공평하게 한도를 나누고, 응답의 usage 로 토큰 한도를 보정
+    public Map<String, Object> chatCompletion(Map<String, Object> requestBody, Long memberId, int estimatedTokens) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(apiKey);
+        HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(requestBody, headers);
+
+        return execute(memberId, estimatedTokens, permit -> {
+            ResponseEntity<Map<String, Object>> response =
+                    restTemplate.exchange(endpoint, HttpMethod.POST, requestEntity, RESPONSE_TYPE);
+            Map<String, Object> responseBody = response.getBody();
+            if (responseBody != null && responseBody.get("usage") instanceof Map<?, ?> usage
+                    && usage.get("total_tokens") instanceof Number totalTokens) {
+                permit.reconcile(totalTokens.longValue());
+            }
+            return responseBody;
+        });
+    }
+
+    // 스트리밍 응답 (본문을 reader 로 읽음).
+    // 본문을 읽기 시작한 뒤의 오류는 이미 전달한 조각이 다시 전달되지 않도록 재시도하지 않는다.
+    public <T> T streamChatCompletion(Map<String, Object> requestBody, Long memberId, int estimatedTokens, StreamReader<T> reader) {
+        RequestCallback requestCallback = request -> {
+            request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+            request.getHeaders().setBearerAuth(apiKey);
+            objectMapper.writeValue(request.getBody(), requestBody);
+        };
+        return execute(memberId, estimatedTokens, permit -> {
+            // RestTemplate 은 추출기의 IOException 을 ResourceAccessException(재시도 대상)으로 감싸므로 먼저 다른 예외로 바꿈
+            ResponseExtractor<T> bodyReader = response -> {
+                try {
+                    return reader.read(response, permit::reconcile);
+                } catch (IOException e) {
+                    throw new StreamInterruptedException(e);
+                }
+            };
+            return streamingRestTemplate.execute(endpoint, HttpMethod.POST, requestCallback, bodyReader);
+        });
+    }
+
+    private <T> T execute(Long memberId, int estimatedTokens, Function<OpenAiRateLimiter.Permit, T> call) {
+        for (int attempt = 1; ; attempt++) {
+            // 서킷이 열려 있으면 한도 대기 없이 바로 실패
+            if (!circuitBreaker.tryAcquire()) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "AI 서비스를 일시적으로 사용할 수 없습니다.");
+            }
+            // 재시도도 실제 요청이므로 시도마다 분당 한도를 받음 (429 재시도가 한도를 우회하지 않도록)
+            OpenAiRateLimiter.Permit permit;
+            try {
+                permit = rateLimiter.acquire(memberId, estimatedTokens);
+            } catch (RuntimeException e) {
+                circuitBreaker.onIgnored(); // 시험 호출 자리 반납
+                throw e;
+            }
+            try {
+                acquireBulkhead();
+            } catch (RuntimeException e) {
+                permit.cancel();
+                throw e;
+            }
+
+            long start = System.nanoTime();
+            long retryDelayMs;
+            RuntimeException failure;
+            try {
+                calls.increment();
+                T result = call.apply(permit);
+                circuitBreaker.onSuccess();
+                successes.increment();
+                return result;
+            } catch (HttpStatusCodeException e) {
+                int status = e.getStatusCode().value();
+                if (status != 429 && status < 500) {
+                    // 요청 자체의 문제 (인증, 형식 등): 재시도/서킷 판단 대상이 아님
+                    circuitBreaker.onIgnored();
+                    failures.increment();
+                    throw e;
+                }
+                if (status == 429) {
+                    rateLimited.increment();
+                }
+                circuitBreaker.onFailure();
+                failure = e;
+                retryDelayMs = retryAfterMs(e.getResponseHeaders(), attempt);
+            } catch (StreamInterruptedException e) {
+                // 스트리밍 본문을 읽는 중 끊김: 장애로 집계하되 재시도하지 않음
+                circuitBreaker.onFailure();
+                failures.increment();
+                throw e;
+            } catch (ResourceAccessException e) {
+                // 연결 실패, 타임아웃 (응답 본문을 읽기 전)
+                circuitBreaker.onFailure();
+                failure = e;
+                retryDelayMs = backoffMs(attempt);
+            } catch (RuntimeException e) {
+                circuitBreaker.onIgnored();
+                failures.increment();
+                throw e;
+            } finally {
+                latency.record(System.nanoTime() - start);
+                bulkhead.release();
+            }
+
+            if (attempt >= maxAttempts || retryDelayMs < 0) {
+                failures.increment();
+                throw failure;
+            }
+            retries.increment();
+            logger.debug("OpenAI call failed (attempt {}), retrying in {} ms: {}", attempt, retryDelayMs, failure.getMessage());
+            sleep(retryDelayMs);
+        }
+    }
+
+    private void acquireBulkhead() {
+        try {
+            if (!bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS)) {
+                bulkheadRejected.increment();
+                circuitBreaker.onIgnored();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "AI 요청이 많습니다. 잠시 후 다시 시도하세요.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.onIgnored();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "AI 요청이 중단되었습니다.");
+        }
+    }
+
+    // Retry-After(초 또는 HTTP 날짜)가 있으면 따르고, 없으면 지수 백오프. 허용 한도보다 길면 -1 (재시도하지 않음)
+    private long retryAfterMs(HttpHeaders headers, int attempt) {
+        String retryAfter = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return backoffMs(attempt);
+        }
+        long delayMs;
+        try {
+            delayMs = TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                delayMs = Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+            } catch (DateTimeParseException ignored) {
+                return backoffMs(attempt);
+            }
+        }
+        return delayMs <= maxRetryAfterMs ? delayMs : -1;
+    }
+
+    // 지수 백오프 + full jitter: [0, min(max, initial * 2^(attempt-1))]
+    private long backoffMs(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "AI 요청이 중단되었습니다.");
+        }
+    }
+
+    // 스트리밍 응답 본문 읽기. usage 로 응답에 포함된 총 토큰 수를 알리면 한도 보정에 사용
+    @FunctionalInterface
+    public interface StreamReader<T> {
+        T read(ClientHttpResponse response, LongConsumer usage) throws IOException;
+    }
+
+    // 스트리밍 응답 본문을 읽던 중 실패
+    public static class StreamInterruptedException extends RuntimeException {
+        public StreamInterruptedException(IOException cause) {
+            super("OpenAI 스트리밍 응답이 중단되었습니다: " + cause.getMessage(), cause);
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "openAiClient";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calls", calls.sum());
+        stats.put("successes", successes.sum());
+        stats.put("failures", failures.sum());
+        stats.put("retries", retries.sum());
+        stats.put("rateLimited", rateLimited.sum());
+        stats.put("latency", latency.toMap());
+        Map<String, Object> bulkheadStats = new LinkedHashMap<>();
+        bulkheadStats.put("maxConcurrentCalls", maxConcurrentCalls);
+        bulkheadStats.put("inFlight", maxConcurrentCalls - bulkhead.availablePermits());
+        bulkheadStats.put("rejected", bulkheadRejected.sum());
+        stats.put("bulkhead", bulkheadStats);
+        stats.put("circuitBreaker", circuitBreaker.stats());
+        return stats;
+    }
+}
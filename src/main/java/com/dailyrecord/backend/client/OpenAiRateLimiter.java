@@ -0,0 +1,244 @@
+package com.dailyrecord.backend.client;
+
+import com.dailyrecord.backend.stats.LatencyStats;
+import com.dailyrecord.backend.stats.StatsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// OpenAI 분당 요청 수(RPM)와 분당 토큰 수(TPM) 한도를 지키는 토큰 버킷 스케줄러.
+// 대기 중인 요청은 회원별 대기열에 들어가고, 회원 사이를 번갈아(라운드 로빈) 허용하므로
+// 한 회원이 요청을 몰아 보내도 다른 회원의 요청이 굶지 않는다.
+@Component
+public class OpenAiRateLimiter implements StatsSource {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final double requestsPerMinute;
+    private final double tokensPerMinute;
+    private final long maxWaitNanos;
+    private final int maxQueueSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    // 버킷 (분당 한도만큼 채워지며, 한도 이상 쌓이지 않음)
+    private double availableRequests;
+    private double availableTokens;
+    private long lastRefillNanos;
+
+    // 회원별 대기열과 다음 차례 순서
+    private final Map<Long, Deque<Ticket>> queues = new HashMap<>();
+    private final Deque<Long> rotation = new ArrayDeque<>();
+    private int queued;
+
+    private final LatencyStats waitTime = new LatencyStats();
+    private final LongAdder granted = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public OpenAiRateLimiter(@Value("${openai.client.rate-limit.requests-per-minute:500}") double requestsPerMinute,
+                             @Value("${openai.client.rate-limit.tokens-per-minute:200000}") double tokensPerMinute,
+                             @Value("${openai.client.rate-limit.max-wait-ms:60000}") long maxWaitMs,
+                             @Value("${openai.client.rate-limit.max-queue-size:1000}") int maxQueueSize) {
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.maxQueueSize = maxQueueSize;
+        this.availableRequests = requestsPerMinute;
+        this.availableTokens = tokensPerMinute;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    // 요청 1건과 예상 토큰만큼의 한도를 받을 때까지 대기. 실제 사용량을 알면 Permit.reconcile 로 보정한다.
+    public Permit acquire(Long memberId, int estimatedTokens) {
+        long start = System.nanoTime();
+        long deadline = start + maxWaitNanos;
+        // 한 번에 버킷 크기보다 많이 요구하면 영원히 허용되지 않으므로 제한
+        Ticket ticket = new Ticket(Math.min(estimatedTokens, (long) tokensPerMinute));
+        Long key = memberId != null ? memberId : 0L;
+
+        lock.lock();
+        try {
+            if (queued >= maxQueueSize) {
+                rejected.increment();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "AI 요청이 많습니다. 잠시 후 다시 시도하세요.");
+            }
+            enqueue(key, ticket);
+            while (true) {
+                long waitNanos = dispatch();
+                if (ticket.granted) {
+                    break;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    remove(key, ticket);
+                    timedOut.increment();
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "AI 요청이 많습니다. 잠시 후 다시 시도하세요.");
+                }
+                changed.awaitNanos(Math.min(remaining, waitNanos));
+            }
+        } catch (InterruptedException e) {
+            remove(key, ticket);
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "AI 요청이 중단되었습니다.");
+        } finally {
+            lock.unlock();
+        }
+
+        waitTime.record(System.nanoTime() - start);
+        granted.increment();
+        return new Permit(ticket.tokens);
+    }
+
+    // 차례대로 허용할 수 있는 만큼 허용하고, 다음 허용까지 기다릴 시간을 반환 (lock 보유 상태에서 호출)
+    private long dispatch() {
+        refill();
+        boolean grantedAny = false;
+        while (!rotation.isEmpty()) {
+            Long member = rotation.peekFirst();
+            Deque<Ticket> queue = queues.get(member);
+            Ticket head = queue.peekFirst();
+            if (availableRequests < 1 || availableTokens < head.tokens) {
+                break;
+            }
+            availableRequests -= 1;
+            availableTokens -= head.tokens;
+            head.granted = true;
+            queue.pollFirst();
+            queued--;
+            grantedAny = true;
+
+            // 이 회원을 맨 뒤로 보내 다른 회원에게 차례를 넘김
+            rotation.pollFirst();
+            if (queue.isEmpty()) {
+                queues.remove(member);
+            } else {
+                rotation.addLast(member);
+            }
+        }
+        if (grantedAny) {
+            changed.signalAll();
+        }
+        if (rotation.isEmpty()) {
+            return Long.MAX_VALUE;
+        }
+        Ticket head = queues.get(rotation.peekFirst()).peekFirst();
+        double requestDeficit = Math.max(0, 1 - availableRequests);
+        double tokenDeficit = Math.max(0, head.tokens - availableTokens);
+        long requestWait = (long) (requestDeficit / requestsPerMinute * NANOS_PER_MINUTE);
+        long tokenWait = (long) (tokenDeficit / tokensPerMinute * NANOS_PER_MINUTE);
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(1), Math.max(requestWait, tokenWait));
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedMinutes = (double) (now - lastRefillNanos) / NANOS_PER_MINUTE;
+        lastRefillNanos = now;
+        availableRequests = Math.min(requestsPerMinute, availableRequests + elapsedMinutes * requestsPerMinute);
+        availableTokens = Math.min(tokensPerMinute, availableTokens + elapsedMinutes * tokensPerMinute);
+    }
+
+    private void enqueue(Long member, Ticket ticket) {
+        Deque<Ticket> queue = queues.get(member);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            queues.put(member, queue);
+            rotation.addLast(member);
+        }
+        queue.addLast(ticket);
+        queued++;
+    }
+
+    private void remove(Long member, Ticket ticket) {
+        Deque<Ticket> queue = queues.get(member);
+        if (queue != null && queue.remove(ticket)) {
+            queued--;
+            if (queue.isEmpty()) {
+                queues.remove(member);
+                rotation.remove(member);
+            }
+            changed.signalAll();
+        }
+    }
+
+    // 예상과 실제 사용량의 차이를 버킷에 반영 (많이 쓰면 음수가 되어 다음 허용이 늦어짐)
+    private void adjust(int requestDelta, long tokenDelta) {
+        lock.lock();
+        try {
+            refill();
+            availableRequests = Math.min(requestsPerMinute, availableRequests + requestDelta);
+            availableTokens = Math.min(tokensPerMinute, availableTokens + tokenDelta);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "openAiRateLimiter";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            refill();
+            stats.put("queueDepth", queued);
+            stats.put("waitingMembers", rotation.size());
+            stats.put("availableRequests", Math.round(availableRequests));
+            stats.put("availableTokens", Math.round(availableTokens));
+        } finally {
+            lock.unlock();
+        }
+        stats.put("requestsPerMinute", requestsPerMinute);
+        stats.put("tokensPerMinute", tokensPerMinute);
+        stats.put("granted", granted.sum());
+        stats.put("timedOut", timedOut.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("waitTime", waitTime.toMap());
+        return stats;
+    }
+
+    private static final class Ticket {
+        private final long tokens;
+        private boolean granted;
+
+        private Ticket(long tokens) {
+            this.tokens = tokens;
+        }
+    }
+
+    public final class Permit {
+        private final long estimatedTokens;
+
+        private Permit(long estimatedTokens) {
+            this.estimatedTokens = estimatedTokens;
+        }
+
+        // 응답의 usage.total_tokens 로 보정
+        public void reconcile(long actualTokens) {
+            if (actualTokens > 0 && actualTokens != estimatedTokens) {
+                adjust(0, estimatedTokens - actualTokens);
+            }
+        }
+
+        // 요청을 보내지 못한 경우 (서킷 차단, 동시 호출 제한) 받은 한도를 돌려줌
+        public void cancel() {
+            adjust(1, estimatedTokens);
+        }
+    }
+}
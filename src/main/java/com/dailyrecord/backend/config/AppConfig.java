@@ -1,14 +1,43 @@
 package com.dailyrecord.backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
+    // OpenAI 호출용. JDK HttpClient 는 연결을 재사용(keep-alive)하고 HTTP/2 를 지원한다.
+    // 읽기 타임아웃은 응답 본문까지 포함한 시간이다 (JdkClientHttpRequest 는 시간이 지나면 본문 스트림을 닫는다)
+    @Bean
+    public RestTemplate openAiRestTemplate(@Value("${openai.client.connect-timeout-ms:5000}") long connectTimeoutMs,
+                                           @Value("${openai.client.read-timeout-ms:60000}") long readTimeoutMs) {
+        return buildOpenAiRestTemplate(connectTimeoutMs, readTimeoutMs);
+    }
+
+    // 스트리밍 응답용. 긴 글은 생성에 1분 이상 걸리므로 별도의 긴 타임아웃을 사용 (0 이면 제한 없음)
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate openAiStreamingRestTemplate(@Value("${openai.client.connect-timeout-ms:5000}") long connectTimeoutMs,
+                                                    @Value("${openai.client.stream-read-timeout-ms:300000}") long readTimeoutMs) {
+        return buildOpenAiRestTemplate(connectTimeoutMs, readTimeoutMs);
+    }
+
+    private static RestTemplate buildOpenAiRestTemplate(long connectTimeoutMs, long readTimeoutMs) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        if (readTimeoutMs > 0) {
+            requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        }
+        return new RestTemplate(requestFactory);
     }
-}
\ No newline at end of file
+}
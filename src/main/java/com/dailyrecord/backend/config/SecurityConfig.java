@@ -1,5 +1,6 @@
 package com.dailyrecord.backend.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -34,8 +35,10 @@ public class SecurityConfig {
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS) // 세션 사용 안 함
                 .and()
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/members/register", "/api/members/login").permitAll() // 로그인/회원가입은 인증 필요 없음
+                        .requestMatchers("/api/members/register", "/api/members/login", "/api/members/refresh", "/api/members/logout").permitAll() // 로그인/회원가입은 인증 필요 없음
                         .requestMatchers(HttpMethod.GET, "/api/members/me").authenticated() // 인증 필요
+                        .requestMatchers("/api/photos/exif-backfill/**").hasRole("ADMIN") // 백필 시작/중단/속도 변경은 관리자만
+                        .requestMatchers("/api/stats/**").hasRole("ADMIN") // 운영 통계도 관리자만
                         .anyRequest().permitAll() // 나머지 요청 허용
                 )
                 .cors().configurationSource(corsConfigurationSource()) // CORS 설정 추가
@@ -58,8 +61,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
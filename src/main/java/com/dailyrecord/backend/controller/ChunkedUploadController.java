@@ -0,0 +1,79 @@
+package com.dailyrecord.backend.controller;
+
+import com.dailyrecord.backend.dto.FileUploadResponse;
+import com.dailyrecord.backend.model.Photos;
+import com.dailyrecord.backend.model.UploadSession;
+import com.dailyrecord.backend.service.ChunkedUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+// 이어받기 가능한 분할 업로드 API
+@RestController
+@RequestMapping("/api/photos/uploads")
+public class ChunkedUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    public ChunkedUploadController(ChunkedUploadService chunkedUploadService) {
+        this.chunkedUploadService = chunkedUploadService;
+    }
+
+    // POST /api/photos/uploads: 업로드 시작 (uploadId 발급)
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> initUpload(
+            @RequestParam("fileName") String fileName,
+            @RequestParam("totalSize") long totalSize,
+            @RequestParam("memberId") Long memberId,
+            @RequestParam("postId") Long postId) throws IOException {
+        UploadSession session = chunkedUploadService.init(memberId, postId, fileName, totalSize);
+        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(session));
+    }
+
+    // PUT /api/photos/uploads/{uploadId}?offset=N: 조각 업로드 (본문은 파일 바이트)
+    @PutMapping(value = "/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Object>> uploadChunk(
+            @PathVariable String uploadId,
+            @RequestParam("offset") long offset,
+            HttpServletRequest request) throws IOException {
+        try (InputStream in = request.getInputStream()) {
+            return ResponseEntity.ok(toResponse(chunkedUploadService.appendChunk(uploadId, offset, in)));
+        }
+    }
+
+    // GET /api/photos/uploads/{uploadId}: 확정된 위치 조회 (이어받기용)
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<Map<String, Object>> getUploadStatus(@PathVariable String uploadId) {
+        return ResponseEntity.ok(toResponse(chunkedUploadService.getStatus(uploadId)));
+    }
+
+    // POST /api/photos/uploads/{uploadId}/complete: 업로드 완료 및 사진 생성
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<FileUploadResponse> completeUpload(@PathVariable String uploadId) throws IOException {
+        try {
+            Photos photo = chunkedUploadService.complete(uploadId);
+            return ResponseEntity.ok(new FileUploadResponse("파일 업로드 성공 및 DB 저장 완료", photo.getFileName(), photo.getId()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new FileUploadResponse("요청 처리 실패: " + e.getMessage(), null, null));
+        }
+    }
+
+    private Map<String, Object> toResponse(UploadSession session) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("uploadId", session.getId());
+        response.put("fileName", session.getFileName());
+        response.put("totalSize", session.getTotalSize());
+        response.put("committedOffset", session.getCommittedOffset());
+        response.put("status", session.getStatus());
+        response.put("photoId", session.getPhotoId());
+        return response;
+    }
+}
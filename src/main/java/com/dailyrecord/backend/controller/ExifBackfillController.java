@@ -0,0 +1,49 @@
+package com.dailyrecord.backend.controller;
+
+import com.dailyrecord.backend.service.ExifBackfillService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// 기존 사진 EXIF 재추출 백필 제어
+@RestController
+@RequestMapping("/api/photos/exif-backfill")
+public class ExifBackfillController {
+
+    private final ExifBackfillService exifBackfillService;
+
+    public ExifBackfillController(ExifBackfillService exifBackfillService) {
+        this.exifBackfillService = exifBackfillService;
+    }
+
+    // POST /api/photos/exif-backfill/start?restart=false&maxPhotosPerSecond=50
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, Object>> start(
+            @RequestParam(value = "restart", defaultValue = "false") boolean restart,
+            @RequestParam(value = "maxPhotosPerSecond", required = false) Integer maxPhotosPerSecond) {
+        boolean started = exifBackfillService.start(restart, maxPhotosPerSecond);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).body(exifBackfillService.getStatus());
+    }
+
+    // POST /api/photos/exif-backfill/stop: 현재 페이지까지 처리 후 중단
+    @PostMapping("/stop")
+    public ResponseEntity<Map<String, Object>> stop() {
+        exifBackfillService.stop();
+        return ResponseEntity.ok(exifBackfillService.getStatus());
+    }
+
+    // PATCH /api/photos/exif-backfill/throttle?maxPhotosPerSecond=20: 실행 중 속도 제한 변경
+    @PatchMapping("/throttle")
+    public ResponseEntity<Map<String, Object>> throttle(@RequestParam("maxPhotosPerSecond") int maxPhotosPerSecond) {
+        exifBackfillService.setMaxPhotosPerSecond(maxPhotosPerSecond);
+        return ResponseEntity.ok(exifBackfillService.getStatus());
+    }
+
+    // GET /api/photos/exif-backfill: 진행 상황 및 처리 속도
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(exifBackfillService.getStatus());
+    }
+}
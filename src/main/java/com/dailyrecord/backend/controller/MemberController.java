@@ -1,7 +1,9 @@
 package com.dailyrecord.backend.controller;
 
 import com.dailyrecord.backend.dto.LoginRequest;
+import com.dailyrecord.backend.dto.LoginResponse;
 import com.dailyrecord.backend.model.Members;
+import com.dailyrecord.backend.security.MemberPrincipal;
 import com.dailyrecord.backend.service.MemberService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -11,9 +13,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/members")
@@ -27,9 +32,8 @@ public class MemberController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<Members> registerMember(@RequestBody Members members) {
-        Members savedMembers = memberService.registerMember(members);
-        return ResponseEntity.ok(savedMembers);
+    public CompletableFuture<ResponseEntity<Members>> registerMember(@RequestBody Members members) {
+        return memberService.registerMember(members).thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/username/{username}")
@@ -47,26 +51,89 @@ public class MemberController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<String> login(@RequestBody LoginRequest loginRequest) {
-        // 유저 인증 및 JWT 토큰 생성
-        String token = memberService.login(loginRequest.getEmail(), loginRequest.getPassword());
-
-        if (token != null) {
-            // HttpOnly 쿠키 생성
-            ResponseCookie cookie = ResponseCookie.from("authToken", token)
-                    .httpOnly(true) // JavaScript에서 접근 불가
-                    .secure(false) // HTTPS에서만 전송 (개발 환경에서는 false로 설정)
-                    .path("/") // 모든 경로에서 유효
-                    .maxAge(7 * 24 * 60 * 60) // 쿠키 만료 시간 (7일)
-                    .sameSite("Lax") // Cross-Site 요청 허용
-                    .build();
+    public CompletableFuture<ResponseEntity<String>> login(@RequestBody LoginRequest loginRequest) {
+        // 유저 인증 및 JWT 토큰 생성 (비밀번호 검증 동안 요청 스레드를 점유하지 않음)
+        return memberService.login(loginRequest.getEmail(), loginRequest.getPassword())
+                .thenApply(tokens -> ResponseEntity.ok()
+                        .header(HttpHeaders.SET_COOKIE, accessTokenCookie(tokens.getToken()).toString()) // 쿠키를 응답 헤더에 추가
+                        .header(HttpHeaders.SET_COOKIE, refreshTokenCookie(tokens.getRefreshToken()).toString())
+                        .body("로그인 성공"))
+                .exceptionally(this::loginFailure);
+    }
 
+    // 리프레시 토큰으로 액세스 토큰 재발급 (리프레시 토큰도 함께 교체)
+    @PostMapping("/refresh")
+    public ResponseEntity<String> refresh(@CookieValue(value = "refreshToken", required = false) String refreshToken) {
+        if (refreshToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Refresh token required");
+        }
+        try {
+            LoginResponse tokens = memberService.refresh(refreshToken);
             return ResponseEntity.ok()
-                    .header(HttpHeaders.SET_COOKIE, cookie.toString()) // 쿠키를 응답 헤더에 추가
-                    .body("로그인 성공");
-        } else {
+                    .header(HttpHeaders.SET_COOKIE, accessTokenCookie(tokens.getToken()).toString())
+                    .header(HttpHeaders.SET_COOKIE, refreshTokenCookie(tokens.getRefreshToken()).toString())
+                    .body("토큰 재발급 성공");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .header(HttpHeaders.SET_COOKIE, refreshTokenCookie("", 0).toString())
+                    .body("Invalid refresh token");
+        }
+    }
+
+    // HttpOnly 액세스 토큰 쿠키 생성
+    private ResponseCookie accessTokenCookie(String token) {
+        return accessTokenCookie(token, memberService.getAccessTokenMaxAgeSeconds());
+    }
+
+    private ResponseCookie accessTokenCookie(String token, long maxAgeSeconds) {
+        return ResponseCookie.from("authToken", token)
+                .httpOnly(true) // JavaScript에서 접근 불가
+                .secure(false) // HTTPS에서만 전송 (개발 환경에서는 false로 설정)
+                .path("/") // 모든 경로에서 유효
+                .maxAge(maxAgeSeconds) // 쿠키 만료 시간 (액세스 토큰 만료 시간과 동일)
+                .sameSite("Lax") // Cross-Site 요청 허용
+                .build();
+    }
+
+    // 리프레시 토큰은 회원 API 경로로만 전송
+    private ResponseCookie refreshTokenCookie(String token) {
+        return refreshTokenCookie(token, memberService.getRefreshTokenMaxAgeSeconds());
+    }
+
+    private ResponseCookie refreshTokenCookie(String token, long maxAgeSeconds) {
+        return ResponseCookie.from("refreshToken", token)
+                .httpOnly(true)
+                .secure(false)
+                .path("/api/members")
+                .maxAge(maxAgeSeconds)
+                .sameSite("Lax")
+                .build();
+    }
+
+    private ResponseEntity<String> loginFailure(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof IllegalArgumentException) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
         }
+        if (cause instanceof ResponseStatusException statusException) {
+            // 해시 스레드 풀 포화
+            return ResponseEntity.status(statusException.getStatusCode())
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(statusException.getReason());
+        }
+        throw cause instanceof RuntimeException runtimeException ? runtimeException : new CompletionException(cause);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<String> logout(@CookieValue(value = "authToken", required = false) String token,
+                                         @CookieValue(value = "refreshToken", required = false) String refreshToken) {
+        memberService.logout(token, refreshToken);
+
+        // 쿠키 삭제
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, accessTokenCookie("", 0).toString())
+                .header(HttpHeaders.SET_COOKIE, refreshTokenCookie("", 0).toString())
+                .body("로그아웃 성공");
     }
 
     @GetMapping("/me")
@@ -75,15 +142,18 @@ public class MemberController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized");
         }
 
-        Members member = memberService.findByEmail(userDetails.getUsername());
+        // 인증 필터에서 로드한 회원 정보를 그대로 사용 (추가 DB 조회 없음)
+        MemberPrincipal member = userDetails instanceof MemberPrincipal
+                ? (MemberPrincipal) userDetails
+                : memberService.findPrincipalByEmail(userDetails.getUsername());
 
         if (member == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         }
 
         Map<String, Object> response = new HashMap<>();
-        response.put("id", member.getId());
-        response.put("username", member.getUsername());
+        response.put("id", member.getMemberId());
+        response.put("username", member.getMemberName());
         response.put("email", member.getEmail());
         return ResponseEntity.ok(response);
     }
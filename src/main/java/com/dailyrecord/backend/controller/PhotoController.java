@@ -1,60 +1,68 @@
 package com.dailyrecord.backend.controller;
 
+import com.dailyrecord.backend.dto.BatchUploadResponse;
+import com.dailyrecord.backend.dto.AnalysisRequest;
 import com.dailyrecord.backend.dto.FileUploadResponse;
 import com.dailyrecord.backend.model.AiGenerateData;
+import com.dailyrecord.backend.model.AnalysisJob;
 import com.dailyrecord.backend.model.Photos;
-import com.dailyrecord.backend.model.Members;
-import com.dailyrecord.backend.model.Posts;
 import com.dailyrecord.backend.repository.AiGenerateDataRepository;
 import com.dailyrecord.backend.repository.PhotosRepository;
-import com.dailyrecord.backend.repository.MemberRepository;
-import com.dailyrecord.backend.repository.PostRepository;
-import com.dailyrecord.backend.service.ExifService;
+import com.dailyrecord.backend.service.AnalysisJobService;
+import com.dailyrecord.backend.service.AnalysisStreamService;
 import com.dailyrecord.backend.service.OpenAiService;
+import com.dailyrecord.backend.service.PhotoAnalysisService;
+import com.dailyrecord.backend.service.PhotoService;
+import com.dailyrecord.backend.service.ThumbnailService;
+import com.dailyrecord.backend.storage.FileResponseWriter;
+import com.dailyrecord.backend.storage.PhotoStorage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeParseException;
-import java.util.Collections;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/photos")
 public class PhotoController {
 
-    private final String uploadDir = "D:/dailyrecord-Back/uploads";
-    private final ExifService exifService;
+    private final PhotoService photoService;
+    private final ThumbnailService thumbnailService;
+    private final PhotoStorage photoStorage;
+    private final FileResponseWriter fileResponseWriter;
     private final OpenAiService openAiService;
     private final PhotosRepository photosRepository;
-    private final MemberRepository membersRepository;
-    private final PostRepository postsRepository;
     private final AiGenerateDataRepository aiGenerateDataRepository;
+    private final PhotoAnalysisService photoAnalysisService;
+    private final AnalysisJobService analysisJobService;
+    private final AnalysisStreamService analysisStreamService;
 
     private static final Logger logger = LoggerFactory.getLogger(PhotoController.class);
 
-    public PhotoController(ExifService exifService, OpenAiService openAiService, PhotosRepository photosRepository, MemberRepository membersRepository, PostRepository postsRepository, AiGenerateDataRepository aiGenerateDataRepository) {
-        this.exifService = exifService;
+    public PhotoController(PhotoService photoService, ThumbnailService thumbnailService, PhotoStorage photoStorage, FileResponseWriter fileResponseWriter, OpenAiService openAiService, PhotosRepository photosRepository, AiGenerateDataRepository aiGenerateDataRepository, PhotoAnalysisService photoAnalysisService, AnalysisJobService analysisJobService, AnalysisStreamService analysisStreamService) {
+        this.photoService = photoService;
+        this.thumbnailService = thumbnailService;
+        this.photoStorage = photoStorage;
+        this.fileResponseWriter = fileResponseWriter;
         this.openAiService = openAiService;
         this.photosRepository = photosRepository;
-        this.membersRepository = membersRepository;
-        this.postsRepository = postsRepository;
         this.aiGenerateDataRepository = aiGenerateDataRepository;
-
-        // 업로드 디렉토리 생성
-        File dir = new File(uploadDir);
-        if (!dir.exists()) {
-            dir.mkdirs();
-        }
+        this.photoAnalysisService = photoAnalysisService;
+        this.analysisJobService = analysisJobService;
+        this.analysisStreamService = analysisStreamService;
     }
 
     @PostMapping("/upload")
@@ -63,117 +71,214 @@ public class PhotoController {
             @RequestParam("memberId") Long memberId,
             @RequestParam("postId") Long postId
     ) {
-        try {
-            // 멤버 및 게시글 조회
-            Members member = membersRepository.findById(memberId)
-                    .orElseThrow(() -> new RuntimeException("Member not found with ID: " + memberId));
-            Posts post = postsRepository.findById(postId)
-                    .orElseThrow(() -> new RuntimeException("Post not found with ID: " + postId));
-
-            // 파일 저장
-            String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            File destinationFile = new File(uploadDir, fileName);
-            file.transferTo(destinationFile);
-
-            // EXIF 데이터 추출 및 설정
-            Map<String, String> exifData = exifService.extractExifData(destinationFile);
-            Photos photo = new Photos();
-            photo.setFileName(fileName);
-            photo.setFileSize(file.getSize());
-
-            if (exifData.get("GPS Latitude") != null) {
-                photo.setLatitude(Double.valueOf(exifData.get("GPS Latitude")));
-            }
-            if (exifData.get("GPS Longitude") != null) {
-                photo.setLongitude(Double.valueOf(exifData.get("GPS Longitude")));
-            }
-            if (exifData.get("TakenAt") != null) {
-                try {
-                    photo.setTakenAt(LocalDateTime.parse(exifData.get("TakenAt")));
-                } catch (DateTimeParseException e) {
-                    photo.setTakenAt(null);
-                }
-            }
-
-            // 관계 설정 및 DB 저장
-            photo.setMember(member);
-            photo.setPost(post);
-            Photos savedPhoto = photosRepository.save(photo); // 저장된 Photo 엔티티
-
-            // 응답에 photoId 포함
-            FileUploadResponse response = new FileUploadResponse(
-                    "파일 업로드 성공 및 DB 저장 완료",
-                    fileName,
-                    savedPhoto.getId() // 저장된 Photo의 ID 반환
-            );
-            return ResponseEntity.ok(response);
+        try (InputStream in = file.getInputStream()) {
+            return uploaded(photoService.upload(in, file.getOriginalFilename(), memberId, postId));
+        } catch (IOException e) {
+            return uploadFailed(e);
+        } catch (RuntimeException e) {
+            return uploadRejected(e);
+        }
+    }
 
+    // 여러 파일 일괄 업로드 (파일별 결과 반환)
+    @PostMapping("/upload-batch")
+    public ResponseEntity<BatchUploadResponse> uploadPhotoBatch(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam("memberId") Long memberId,
+            @RequestParam("postId") Long postId
+    ) {
+        try {
+            List<BatchUploadResponse.Item> results = photoService.uploadBatch(files, memberId, postId);
+            return ResponseEntity.ok(new BatchUploadResponse("일괄 업로드 완료", results));
         } catch (IOException e) {
-            e.printStackTrace();
+            logger.error("일괄 업로드 실패", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new FileUploadResponse("파일 업로드 실패", null, null));
+                    .body(new BatchUploadResponse("일괄 업로드 실패", List.of()));
         } catch (RuntimeException e) {
-            e.printStackTrace();
+            logger.warn("일괄 업로드 요청 처리 실패: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new FileUploadResponse("요청 처리 실패: " + e.getMessage(), null, null));
+                    .body(new BatchUploadResponse("요청 처리 실패: " + e.getMessage(), List.of()));
+        }
+    }
+
+    // 요청 본문(이미지 바이트)을 그대로 스트리밍 업로드 (multipart 임시 파일 없음)
+    @PostMapping(value = "/upload-stream", consumes = {"image/*", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<FileUploadResponse> uploadPhotoStream(
+            HttpServletRequest request,
+            @RequestParam("fileName") String fileName,
+            @RequestParam("memberId") Long memberId,
+            @RequestParam("postId") Long postId
+    ) {
+        try (InputStream in = request.getInputStream()) {
+            return uploaded(photoService.upload(in, fileName, memberId, postId));
+        } catch (IOException e) {
+            return uploadFailed(e);
+        } catch (RuntimeException e) {
+            return uploadRejected(e);
+        }
+    }
+
+    private ResponseEntity<FileUploadResponse> uploaded(Photos savedPhoto) {
+        // 응답에 photoId 포함
+        FileUploadResponse response = new FileUploadResponse(
+                "파일 업로드 성공 및 DB 저장 완료",
+                savedPhoto.getFileName(),
+                savedPhoto.getId() // 저장된 Photo의 ID 반환
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<FileUploadResponse> uploadFailed(IOException e) {
+        logger.error("파일 업로드 실패", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new FileUploadResponse("파일 업로드 실패", null, null));
+    }
+
+    private ResponseEntity<FileUploadResponse> uploadRejected(RuntimeException e) {
+        logger.warn("업로드 요청 처리 실패: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new FileUploadResponse("요청 처리 실패: " + e.getMessage(), null, null));
+    }
+
+    // 사진 원본 조회 (Range, ETag, 조건부 GET 지원)
+    @GetMapping("/{photoId}/content")
+    public void getPhotoContent(@PathVariable Long photoId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Photos photo = photosRepository.findById(photoId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 사진이 존재하지 않습니다."));
+
+        Path file;
+        String etag;
+        if (photo.getContentHash() != null) {
+            file = photoStorage.resolve(photo.getContentHash());
+            etag = "\"" + photo.getContentHash() + "\"";
+        } else {
+            // content_hash 가 없는 기존 업로드
+            file = photoStorage.resolveLegacy(photo.getFileName());
+            etag = "W/\"" + photo.getId() + "-" + photo.getFileSize() + "\"";
+        }
+        fileResponseWriter.write(file, etag, photo.getContentType(), request, response);
+    }
+
+    // 사진 썸네일 조회 (없으면 생성)
+    @GetMapping("/{photoId}/thumbnail")
+    public void getPhotoThumbnail(@PathVariable Long photoId, @RequestParam("size") int size,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!thumbnailService.isSupportedSize(size)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "지원하지 않는 썸네일 크기입니다.");
+        }
+        Photos photo = photosRepository.findById(photoId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 사진이 존재하지 않습니다."));
+
+        if (photo.getContentHash() == null) {
+            // content_hash 가 없는 기존 업로드는 원본 제공
+            getPhotoContent(photoId, request, response);
+            return;
         }
+        Path file = thumbnailService.getDerivative(photo, size);
+        String etag = "\"" + photo.getContentHash() + "-" + size + "\"";
+        fileResponseWriter.write(file, etag, "image/jpeg", request, response);
     }
+
+    // 사진 삭제
+    @DeleteMapping("/{photoId}")
+    public ResponseEntity<?> deletePhoto(@PathVariable Long photoId) {
+        try {
+            if (photoService.deletePhoto(photoId)) {
+                return ResponseEntity.noContent().build();
+            }
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "해당 사진 ID를 찾을 수 없습니다."));
+        } catch (IOException e) {
+            logger.error("사진 삭제 중 오류 발생", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "사진 삭제 중 오류 발생"));
+        }
+    }
+
     // AI 캡션 및 스토리 생성 API
+    // 기본은 분석 작업을 만들고 202 + 작업 ID 반환 (GET /api/photos/analysis-jobs/{jobId} 로 확인)
+    // wait=true 이면 분석이 끝날 때까지 기다렸다가 결과 반환
     @PostMapping("/{photoId}/analyze")
     public ResponseEntity<?> analyzePhoto(
             @PathVariable Long photoId,
+            @RequestParam(value = "wait", defaultValue = "false") boolean wait,
             @RequestBody Map<String, String> additionalInfo // 추가 정보 받기
     ) {
-        try {
-            Photos photo = photosRepository.findById(photoId)
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 사진이 존재하지 않습니다."));
+        Photos photo = photosRepository.findById(photoId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 사진이 존재하지 않습니다."));
+        AnalysisRequest analysisRequest = AnalysisRequest.from(additionalInfo);
 
-            if (aiGenerateDataRepository.existsByPhotoId(photoId)) {
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "이미 분석 데이터가 존재합니다."));
+        try {
+            if (!wait) {
+                AnalysisJob job = analysisJobService.submit(photo, analysisRequest);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                        "message", "사진 분석 요청 접수",
+                        "jobId", job.getId(),
+                        "status", job.getStatus(),
+                        "statusUrl", "/api/photos/analysis-jobs/" + job.getId()
+                ));
             }
 
-            // 추가 정보 추출
-            String atmosphereofwriting = additionalInfo.getOrDefault("atmosphereofwriting", "알 수 없음");
-            String place = additionalInfo.getOrDefault("place", "알 수 없음");
-            String age = additionalInfo.getOrDefault("age", "알 수 없음");
-            String companions = additionalInfo.getOrDefault("companions", "혼자");
-            String mbti = additionalInfo.getOrDefault("mbti", "알 수 없음");
-            String situation = additionalInfo.getOrDefault("situation", "상황 정보 없음");
-
-            // OpenAI API 호출 (추가 정보 포함)
-            String analysis = openAiService.analyzePhoto(photo, atmosphereofwriting, place, age, companions, mbti, situation);
-
-            // Caption 데이터 생성
-            String captionContent = String.format(
-                    "글 분위기: %s\n장소: %s\n나이: %s\n동행: %s\nMBTI: %s\n상황: %s",
-                    atmosphereofwriting,
-                    place,
-                    age,
-                    companions,
-                    mbti,
-                    situation
-            );
-
-            // 데이터 저장
-            AiGenerateData aiData = new AiGenerateData();
-            aiData.setPhoto(photo);
-            aiData.setStory(analysis);
-            aiData.setCaption(captionContent); // Caption 추가
-
-            aiGenerateDataRepository.save(aiData);
-
-            return ResponseEntity.ok(Map.of(
-                    "message", "사진 분석 완료",
-                    "analysis", analysis,
-                    "caption", captionContent
-            ));
+            PhotoAnalysisService.AnalysisResult result = photoAnalysisService.analyze(photo, analysisRequest);
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "사진 분석 완료");
+            response.put("analysis", result.story());
+            response.put("caption", result.caption());
+            if (result.reusedFromPhotoId() != null) {
+                response.put("reusedFromPhotoId", result.reusedFromPhotoId());
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("사진 분석 중 오류 발생", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "사진 분석 중 오류 발생", "details", e.getMessage()));
+                    .body(Map.of("error", "사진 분석 중 오류 발생", "details", String.valueOf(e.getMessage())));
+        }
+    }
+
+    // AI 스토리 스트리밍 (SSE): POST /api/photos/{photoId}/analyze?stream=true
+    // 생성되는 글 조각을 "token" 이벤트로 바로 전달하고, 완료 후 저장된 결과를 "done" 이벤트로 보낸다
+    @PostMapping(value = "/{photoId}/analyze", params = "stream=true", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> analyzePhotoStream(
+            @PathVariable Long photoId,
+            @RequestBody Map<String, String> additionalInfo
+    ) {
+        Photos photo = photosRepository.findById(photoId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 사진이 존재하지 않습니다."));
+        try {
+            return ResponseEntity.ok(analysisStreamService.stream(photo, AnalysisRequest.from(additionalInfo)));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // 분석 작업 상태 조회 (완료 시 결과 포함)
+    @GetMapping("/analysis-jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getAnalysisJob(@PathVariable String jobId) {
+        AnalysisJob job = analysisJobService.getJob(jobId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", job.getId());
+        response.put("photoId", job.getPhotoId());
+        response.put("status", job.getStatus());
+        response.put("createdAt", job.getCreatedAt());
+        response.put("completedAt", job.getCompletedAt());
+        if (job.getError() != null) {
+            response.put("error", job.getError());
+        }
+        if (AnalysisJobService.STATUS_COMPLETED.equals(job.getStatus())) {
+            aiGenerateDataRepository.findByPhotoIdAndStatus(job.getPhotoId(), AiGenerateData.STATUS_COMPLETED).ifPresent(aiData -> {
+                response.put("analysis", aiData.getStory());
+                response.put("caption", aiData.getCaption());
+            });
+            if (job.getReusedFromPhotoId() != null) {
+                response.put("reusedFromPhotoId", job.getReusedFromPhotoId());
+            }
         }
+        return ResponseEntity.ok(response);
     }
+
     @PatchMapping("/{photoId}/update-story")
     public ResponseEntity<?> updateStory(
             @PathVariable Long photoId,
@@ -0,0 +1,46 @@
+package com.dailyrecord.backend.controller;
+
+import com.dailyrecord.backend.model.Photos;
+import com.dailyrecord.backend.repository.PhotosRepository;
+import com.dailyrecord.backend.service.PhotoDuplicateService;
+import com.dailyrecord.backend.similarity.BkTree;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+
+// 비슷한 사진(연속 촬영 등) 조회
+@RestController
+@RequestMapping("/api/photos")
+public class PhotoDuplicateController {
+
+    private final PhotoDuplicateService photoDuplicateService;
+    private final PhotosRepository photosRepository;
+
+    public PhotoDuplicateController(PhotoDuplicateService photoDuplicateService, PhotosRepository photosRepository) {
+        this.photoDuplicateService = photoDuplicateService;
+        this.photosRepository = photosRepository;
+    }
+
+    // GET /api/photos/{photoId}/near-duplicates?maxDistance=10: 사진과 비슷한 사진 (해밍 거리 순)
+    @GetMapping("/{photoId}/near-duplicates")
+    public ResponseEntity<List<BkTree.Match>> getNearDuplicates(
+            @PathVariable Long photoId,
+            @RequestParam(value = "maxDistance", required = false) Integer maxDistance) {
+        Photos photo = photosRepository.findById(photoId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 사진이 존재하지 않습니다."));
+        return ResponseEntity.ok(photoDuplicateService.findNearDuplicates(photo, maxDistance));
+    }
+
+    // GET /api/photos/near-duplicates?memberId=1&maxDistance=10: 비슷한 사진 그룹 (photoId 목록)
+    @GetMapping("/near-duplicates")
+    public ResponseEntity<Map<String, Object>> getNearDuplicateGroups(
+            @RequestParam("memberId") Long memberId,
+            @RequestParam(value = "maxDistance", required = false) Integer maxDistance) {
+        List<List<Long>> groups = photoDuplicateService.findGroups(memberId, maxDistance);
+        return ResponseEntity.ok(Map.of("memberId", memberId, "groups", groups));
+    }
+}
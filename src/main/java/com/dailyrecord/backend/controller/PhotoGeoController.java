@@ -0,0 +1,58 @@
+package com.dailyrecord.backend.controller;
+
+import com.dailyrecord.backend.dto.PhotoClusterResponse;
+import com.dailyrecord.backend.dto.PhotoLocationResponse;
+import com.dailyrecord.backend.service.PhotoClusterService;
+import com.dailyrecord.backend.service.PhotoGeoService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// 위치 기반 사진 조회 (지도 화면용)
+@RestController
+@RequestMapping("/api/photos/geo")
+public class PhotoGeoController {
+
+    private final PhotoGeoService photoGeoService;
+    private final PhotoClusterService photoClusterService;
+
+    public PhotoGeoController(PhotoGeoService photoGeoService, PhotoClusterService photoClusterService) {
+        this.photoGeoService = photoGeoService;
+        this.photoClusterService = photoClusterService;
+    }
+
+    // GET /api/photos/geo/bbox?memberId=1&minLat=..&minLon=..&maxLat=..&maxLon=..&limit=500
+    @GetMapping("/bbox")
+    public ResponseEntity<List<PhotoLocationResponse>> findInBoundingBox(
+            @RequestParam("memberId") Long memberId,
+            @RequestParam("minLat") double minLat,
+            @RequestParam("minLon") double minLon,
+            @RequestParam("maxLat") double maxLat,
+            @RequestParam("maxLon") double maxLon,
+            @RequestParam(value = "limit", defaultValue = "500") int limit) {
+        return ResponseEntity.ok(photoGeoService.findInBoundingBox(memberId, minLat, minLon, maxLat, maxLon, limit));
+    }
+
+    // GET /api/photos/geo/nearby?memberId=1&lat=..&lon=..&k=20: 가까운 순
+    @GetMapping("/nearby")
+    public ResponseEntity<List<PhotoLocationResponse>> findNearest(
+            @RequestParam("memberId") Long memberId,
+            @RequestParam("lat") double latitude,
+            @RequestParam("lon") double longitude,
+            @RequestParam(value = "k", defaultValue = "20") int k) {
+        return ResponseEntity.ok(photoGeoService.findNearest(memberId, latitude, longitude, k));
+    }
+
+    // GET /api/photos/geo/clusters?memberId=1&minLat=..&minLon=..&maxLat=..&maxLon=..&zoom=12: 지도 마커 클러스터
+    @GetMapping("/clusters")
+    public ResponseEntity<List<PhotoClusterResponse>> getClusters(
+            @RequestParam("memberId") Long memberId,
+            @RequestParam("minLat") double minLat,
+            @RequestParam("minLon") double minLon,
+            @RequestParam("maxLat") double maxLat,
+            @RequestParam("maxLon") double maxLon,
+            @RequestParam("zoom") int zoom) {
+        return ResponseEntity.ok(photoClusterService.getClusters(memberId, minLat, minLon, maxLat, maxLon, zoom));
+    }
+}
@@ -0,0 +1,32 @@
+package com.dailyrecord.backend.controller;
+
+import com.dailyrecord.backend.repository.PhotoTimelineRepository.TimelineRow;
+import com.dailyrecord.backend.service.PhotoTimelineService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// 타임라인/캘린더 화면용 날짜별 사진 수
+@RestController
+@RequestMapping("/api/photos/timeline")
+public class PhotoTimelineController {
+
+    private final PhotoTimelineService photoTimelineService;
+
+    public PhotoTimelineController(PhotoTimelineService photoTimelineService) {
+        this.photoTimelineService = photoTimelineService;
+    }
+
+    // GET /api/photos/timeline?memberId=1&from=2024-05-01&to=2024-05-31&granularity=day
+    @GetMapping
+    public ResponseEntity<List<TimelineRow>> getTimeline(
+            @RequestParam("memberId") Long memberId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "granularity", defaultValue = PhotoTimelineService.GRANULARITY_DAY) String granularity) {
+        return ResponseEntity.ok(photoTimelineService.getTimeline(memberId, from, to, granularity));
+    }
+}
@@ -1,7 +1,9 @@
 package com.dailyrecord.backend.controller;
 
+import com.dailyrecord.backend.dto.AnalysisRequest;
 import com.dailyrecord.backend.dto.StatusUpdateRequest;
 import com.dailyrecord.backend.model.Posts;
+import com.dailyrecord.backend.service.PostAnalysisService;
 import com.dailyrecord.backend.service.PostService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,9 +19,11 @@ import java.util.Map;
 public class PostController {
 
     private final PostService postService;
+    private final PostAnalysisService postAnalysisService;
 
-    public PostController(PostService postService) {
+    public PostController(PostService postService, PostAnalysisService postAnalysisService) {
         this.postService = postService;
+        this.postAnalysisService = postAnalysisService;
     }
 
     // POST /posts: 게시글 생성
@@ -72,6 +76,47 @@ public class PostController {
         }
     }
 
+    // POST /posts/{id}/analyze: 게시글의 모든 사진 분석 (이미 분석된 사진은 건너뜀)
+    // combined=true 이면 사진별 스토리를 묶어 게시글 전체 글도 생성
+    @PostMapping("/{id}/analyze")
+    public ResponseEntity<Map<String, Object>> analyzePost(
+            @PathVariable Long id,
+            @RequestParam(value = "combined", defaultValue = "false") boolean combined,
+            @RequestBody(required = false) Map<String, String> additionalInfo) {
+        PostAnalysisService.PostAnalysisResult result =
+                postAnalysisService.analyzePost(id, AnalysisRequest.from(additionalInfo), combined);
+
+        Map<String, Long> counts = new HashMap<>();
+        List<Map<String, Object>> photos = result.photos().stream().map(outcome -> {
+            counts.merge(outcome.status(), 1L, Long::sum);
+            Map<String, Object> photo = new HashMap<>();
+            photo.put("photoId", outcome.photoId());
+            photo.put("status", outcome.status());
+            if (outcome.result() != null) {
+                photo.put("analysis", outcome.result().story());
+                photo.put("caption", outcome.result().caption());
+                if (outcome.result().reusedFromPhotoId() != null) {
+                    photo.put("reusedFromPhotoId", outcome.result().reusedFromPhotoId());
+                }
+            } else if (outcome.error() != null) {
+                photo.put("error", outcome.error());
+            }
+            return photo;
+        }).toList();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("postId", result.postId());
+        response.put("photos", photos);
+        response.put("counts", counts);
+        if (result.postStory() != null) {
+            response.put("postStory", result.postStory());
+        }
+        if (result.postStoryError() != null) {
+            response.put("postStoryError", result.postStoryError());
+        }
+        return ResponseEntity.ok(response);
+    }
+
     // GET /public/posts: 공개 게시글 목록 조회
     @GetMapping("/public")
     public ResponseEntity<List<Posts>> getPublicPosts() {
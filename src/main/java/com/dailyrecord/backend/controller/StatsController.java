@@ -0,0 +1,32 @@
+package com.dailyrecord.backend.controller;
+
+import com.dailyrecord.backend.stats.StatsSource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final List<StatsSource> statsSources;
+
+    public StatsController(List<StatsSource> statsSources) {
+        this.statsSources = statsSources;
+    }
+
+    // GET /api/stats: 캐시, 작업 큐 등 내부 지표 조회
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> response = new TreeMap<>();
+        for (StatsSource source : statsSources) {
+            response.put(source.getStatsName(), source.getStats());
+        }
+        return ResponseEntity.ok(response);
+    }
+}
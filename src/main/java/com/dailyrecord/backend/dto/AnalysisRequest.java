@@ -0,0 +1,97 @@
+package com.dailyrecord.backend.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// 사진 분석 요청 정보 (요청 본문 Map 에서 만들며, 값이 없으면 기본값 사용)
+public class AnalysisRequest {
+    private final String atmosphereofwriting;
+    private final String place;
+    private final String age;
+    private final String companions;
+    private final String mbti;
+    private final String situation;
+    private final boolean reuseDuplicate;
+    private final boolean noCache; // true 이면 응답 캐시를 읽지 않고 새로 생성
+    private final boolean includeImage; // true 이면 축소한 사진을 비전 입력으로 함께 전송
+
+    private AnalysisRequest(Map<String, String> body) {
+        this.atmosphereofwriting = body.getOrDefault("atmosphereofwriting", "알 수 없음");
+        this.place = body.getOrDefault("place", "알 수 없음");
+        this.age = body.getOrDefault("age", "알 수 없음");
+        this.companions = body.getOrDefault("companions", "혼자");
+        this.mbti = body.getOrDefault("mbti", "알 수 없음");
+        this.situation = body.getOrDefault("situation", "상황 정보 없음");
+        this.reuseDuplicate = Boolean.parseBoolean(body.get("reuseDuplicate"));
+        this.noCache = Boolean.parseBoolean(body.get("noCache"));
+        this.includeImage = Boolean.parseBoolean(body.get("includeImage"));
+    }
+
+    public static AnalysisRequest from(Map<String, String> body) {
+        return new AnalysisRequest(body != null ? body : Map.of());
+    }
+
+    // 작업 테이블에 저장했다가 다시 만들 수 있도록 원래 본문 형태로 변환
+    public Map<String, String> toMap() {
+        Map<String, String> map = new HashMap<>();
+        map.put("atmosphereofwriting", atmosphereofwriting);
+        map.put("place", place);
+        map.put("age", age);
+        map.put("companions", companions);
+        map.put("mbti", mbti);
+        map.put("situation", situation);
+        map.put("reuseDuplicate", String.valueOf(reuseDuplicate));
+        map.put("noCache", String.valueOf(noCache));
+        map.put("includeImage", String.valueOf(includeImage));
+        return map;
+    }
+
+    // AiGenerateData.caption 에 저장하는 입력 요약
+    public String toCaption() {
+        return String.format(
+                "글 분위기: %s\n장소: %s\n나이: %s\n동행: %s\nMBTI: %s\n상황: %s",
+                atmosphereofwriting,
+                place,
+                age,
+                companions,
+                mbti,
+                situation
+        );
+    }
+
+    public String getAtmosphereofwriting() {
+        return atmosphereofwriting;
+    }
+
+    public String getPlace() {
+        return place;
+    }
+
+    public String getAge() {
+        return age;
+    }
+
+    public String getCompanions() {
+        return companions;
+    }
+
+    public String getMbti() {
+        return mbti;
+    }
+
+    public String getSituation() {
+        return situation;
+    }
+
+    public boolean isReuseDuplicate() {
+        return reuseDuplicate;
+    }
+
+    public boolean isNoCache() {
+        return noCache;
+    }
+
+    public boolean isIncludeImage() {
+        return includeImage;
+    }
+}
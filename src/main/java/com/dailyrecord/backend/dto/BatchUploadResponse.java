@@ -0,0 +1,64 @@
+package com.dailyrecord.backend.dto;
+
+import java.util.List;
+
+public class BatchUploadResponse {
+    private String message;
+    private int succeeded;
+    private int failed;
+    private List<Item> results;
+
+    public BatchUploadResponse(String message, List<Item> results) {
+        this.message = message;
+        this.results = results;
+        this.succeeded = (int) results.stream().filter(item -> item.getPhotoId() != null).count();
+        this.failed = results.size() - succeeded;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<Item> getResults() {
+        return results;
+    }
+
+    // 파일별 결과 (실패 시 photoId 는 null)
+    public static class Item {
+        private String originalFileName;
+        private String fileName;
+        private Long photoId;
+        private String error;
+
+        public Item(String originalFileName, String fileName, Long photoId, String error) {
+            this.originalFileName = originalFileName;
+            this.fileName = fileName;
+            this.photoId = photoId;
+            this.error = error;
+        }
+
+        public String getOriginalFileName() {
+            return originalFileName;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public Long getPhotoId() {
+            return photoId;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
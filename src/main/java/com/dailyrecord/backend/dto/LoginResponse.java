@@ -2,10 +2,12 @@ package com.dailyrecord.backend.dto;
 
 public class LoginResponse {
     private String token;
+    private String refreshToken;
 
     // Constructor
-    public LoginResponse(String token) {
+    public LoginResponse(String token, String refreshToken) {
         this.token = token;
+        this.refreshToken = refreshToken;
     }
 
     // Getter and Setter
@@ -16,4 +18,12 @@ public class LoginResponse {
     public void setToken(String token) {
         this.token = token;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
 }
@@ -0,0 +1,37 @@
+package com.dailyrecord.backend.dto;
+
+public class PhotoClusterResponse {
+    private String cell;
+    private long count;
+    private double latitude; // 셀 안 사진들의 중심
+    private double longitude;
+    private Long representativePhotoId; // 셀에서 가장 최근에 올린 사진
+
+    public PhotoClusterResponse(String cell, long count, double latitude, double longitude, Long representativePhotoId) {
+        this.cell = cell;
+        this.count = count;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.representativePhotoId = representativePhotoId;
+    }
+
+    public String getCell() {
+        return cell;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public Long getRepresentativePhotoId() {
+        return representativePhotoId;
+    }
+}
@@ -0,0 +1,46 @@
+package com.dailyrecord.backend.dto;
+
+import java.time.LocalDateTime;
+
+public class PhotoLocationResponse {
+    private Long photoId;
+    private String fileName;
+    private double latitude;
+    private double longitude;
+    private LocalDateTime takenAt;
+    private Double distanceMeters; // 주변 검색일 때만 설정
+
+    public PhotoLocationResponse(Long photoId, String fileName, double latitude, double longitude,
+                                 LocalDateTime takenAt, Double distanceMeters) {
+        this.photoId = photoId;
+        this.fileName = fileName;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.takenAt = takenAt;
+        this.distanceMeters = distanceMeters;
+    }
+
+    public Long getPhotoId() {
+        return photoId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+
+    public Double getDistanceMeters() {
+        return distanceMeters;
+    }
+}
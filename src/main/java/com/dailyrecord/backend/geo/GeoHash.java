@@ -0,0 +1,138 @@
+package com.dailyrecord.backend.geo;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// 지오해시 인코딩 및 영역을 덮는 셀 계산.
+// 같은 접두사를 가진 지오해시는 같은 사각형 셀 안에 있으므로 (member_id, geohash) 인덱스로 LIKE '접두사%' 범위 검색을 할 수 있다.
+public final class GeoHash {
+
+    // photos.geohash 에 저장하는 길이 (약 3.7cm x 1.9cm)
+    public static final int STORED_PRECISION = 12;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true; // 짝수 번째 비트는 경도
+        int bit = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch <<= 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    // 위도/경도가 모두 있을 때만 저장용 지오해시 반환
+    public static String encodeOrNull(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return null;
+        }
+        return encode(latitude, longitude, STORED_PRECISION);
+    }
+
+    // 해당 길이의 셀 높이(위도 각도)
+    public static double cellHeight(int precision) {
+        int latBits = (5 * precision) / 2;
+        return 180.0 / (1L << latBits);
+    }
+
+    // 해당 길이의 셀 너비(경도 각도)
+    public static double cellWidth(int precision) {
+        int lonBits = (5 * precision + 1) / 2;
+        return 360.0 / (1L << lonBits);
+    }
+
+    // 영역을 maxCells 개 이하의 셀로 덮을 수 있는 가장 긴 지오해시 길이
+    public static int coveringPrecision(double minLat, double minLon, double maxLat, double maxLon, int maxCells) {
+        for (int precision = STORED_PRECISION; precision > 1; precision--) {
+            if (cellCount(minLat, minLon, maxLat, maxLon, precision) <= maxCells) {
+                return precision;
+            }
+        }
+        return 1;
+    }
+
+    // 영역(경도 180도 경계를 넘지 않음)을 덮는 셀 목록
+    public static Set<String> cover(double minLat, double minLon, double maxLat, double maxLon, int precision) {
+        double height = cellHeight(precision);
+        double width = cellWidth(precision);
+        Set<String> cells = new LinkedHashSet<>();
+        double startLat = alignedStart(minLat, -90, height);
+        double startLon = alignedStart(minLon, -180, width);
+        for (double lat = startLat; lat <= maxLat; lat += height) {
+            for (double lon = startLon; lon <= maxLon; lon += width) {
+                // 셀 중심으로 인코딩해 경계 오차를 피함
+                cells.add(encode(Math.min(lat + height / 2, 90), Math.min(lon + width / 2, 180), precision));
+            }
+        }
+        return cells;
+    }
+
+    // 두 지점 사이 거리 (하버사인, 미터)
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // 중심에서 반경 radiusMeters 를 포함하는 위도 폭(도)
+    public static double latitudeDelta(double radiusMeters) {
+        return Math.toDegrees(radiusMeters / EARTH_RADIUS_METERS);
+    }
+
+    // 중심 위도에서 반경 radiusMeters 원을 포함하는 경도 폭(도). 원의 접점 기준 asin(sin(r/R) / cos(lat)) 이며,
+    // 원이 극을 포함하면(위도 범위가 ±90 에 닿으면) 모든 경도를 포함해야 하므로 360 을 반환한다.
+    public static double longitudeDelta(double latitude, double radiusMeters) {
+        double angular = radiusMeters / EARTH_RADIUS_METERS;
+        double latRad = Math.toRadians(Math.abs(latitude));
+        if (latRad + angular >= Math.PI / 2) {
+            return 360;
+        }
+        return Math.toDegrees(Math.asin(Math.sin(angular) / Math.cos(latRad)));
+    }
+
+    private static double cellCount(double minLat, double minLon, double maxLat, double maxLon, int precision) {
+        double height = cellHeight(precision);
+        double width = cellWidth(precision);
+        double rows = Math.floor((maxLat - alignedStart(minLat, -90, height)) / height) + 1;
+        double cols = Math.floor((maxLon - alignedStart(minLon, -180, width)) / width) + 1;
+        return rows * cols;
+    }
+
+    private static double alignedStart(double value, double origin, double step) {
+        return origin + Math.floor((value - origin) / step) * step;
+    }
+}
@@ -11,6 +11,10 @@ import java.time.LocalDateTime;
 @Setter
 public class AiGenerateData {
 
+    // PENDING: 분석 중(선점), COMPLETED: 분석 완료
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -21,6 +25,17 @@ public class AiGenerateData {
     @Column(name = "story", columnDefinition = "TEXT")
     private String story;
 
+    @Column(name = "status", nullable = false, length = 16, columnDefinition = "varchar(16) default 'COMPLETED'")
+    private String status = STATUS_COMPLETED;
+
+    // 분석을 선점한 시각 (오래된 PENDING 은 다른 요청이 이어받음)
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    // 선점한 요청의 식별자. 선점을 이어받으면 바뀌므로 이전 소유자는 해제할 수 없다
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -28,7 +43,7 @@ public class AiGenerateData {
     private LocalDateTime updatedAt;
 
     @OneToOne
-    @JoinColumn(name = "photo_id", nullable = false) // 외래 키
+    @JoinColumn(name = "photo_id", nullable = false, unique = true) // 외래 키 (사진당 하나)
     private Photos photo;
 
     @PrePersist
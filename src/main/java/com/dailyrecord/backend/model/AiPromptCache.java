@@ -0,0 +1,36 @@
+package com.dailyrecord.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// 같은 프롬프트(모델 + 시스템 메시지 + 정규화된 프롬프트)에 대한 OpenAI 응답 캐시
+@Entity
+@Table(name = "ai_prompt_cache", indexes = {
+        @Index(name = "idx_ai_prompt_cache_created_at", columnList = "created_at")
+})
+@Getter
+@Setter
+public class AiPromptCache {
+
+    // SHA-256 (hex)
+    @Id
+    @Column(name = "prompt_hash", length = 64)
+    private String promptHash;
+
+    @Column(name = "model", nullable = false, length = 64)
+    private String model;
+
+    @Column(name = "response", nullable = false, columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,51 @@
+package com.dailyrecord.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// 비동기 사진 분석 작업. 서버가 재시작되면 끝나지 않은 작업을 다시 실행한다.
+@Entity
+@Table(name = "analysis_jobs", indexes = {
+        @Index(name = "idx_analysis_jobs_status", columnList = "status")
+})
+@Getter
+@Setter
+public class AnalysisJob {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "photo_id", nullable = false)
+    private Long photoId;
+
+    @Column(name = "status", nullable = false, length = 16)
+    private String status;
+
+    // 분석 요청 본문 (JSON)
+    @Column(name = "request", columnDefinition = "TEXT")
+    private String request;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "reused_from_photo_id")
+    private Long reusedFromPhotoId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
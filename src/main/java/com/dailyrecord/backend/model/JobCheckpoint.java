@@ -0,0 +1,40 @@
+package com.dailyrecord.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// 일괄 작업(백필 등)의 진행 위치. 중단 후 다시 시작하면 last_id 다음부터 처리한다.
+@Entity
+@Table(name = "job_checkpoints")
+@Getter
+@Setter
+public class JobCheckpoint {
+
+    @Id
+    @Column(name = "job_name", length = 64)
+    private String jobName;
+
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @Column(name = "processed", nullable = false)
+    private Long processed;
+
+    @Column(name = "updated", nullable = false)
+    private Long updated;
+
+    @Column(name = "failed", nullable = false)
+    private Long failed;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
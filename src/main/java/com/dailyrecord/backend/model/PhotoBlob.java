@@ -0,0 +1,33 @@
+package com.dailyrecord.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// 내용 기반(SHA-256)으로 저장된 사진 파일. 같은 파일을 참조하는 Photos 수를 ref_count 로 관리한다.
+@Entity
+@Table(name = "photo_blobs")
+@Getter
+@Setter
+public class PhotoBlob {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
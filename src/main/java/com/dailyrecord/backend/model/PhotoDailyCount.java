@@ -0,0 +1,35 @@
+package com.dailyrecord.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// 회원별 날짜별 사진 수 (타임라인/캘린더용 집계). 사진 업로드/삭제 시 PhotoTimelineService 가 갱신한다.
+// 날짜는 촬영 시각 기준이며, 촬영 시각이 없으면 업로드 시각을 사용한다.
+@Entity
+@Table(name = "photo_daily_counts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_photo_daily_counts_member_date", columnNames = {"member_id", "photo_date"})
+})
+@Getter
+@Setter
+public class PhotoDailyCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "member_id", nullable = false)
+    private Long memberId;
+
+    @Column(name = "photo_date", nullable = false)
+    private LocalDate photoDate;
+
+    @Column(name = "photo_count", nullable = false)
+    private Long photoCount;
+
+    // 해당 날짜에 가장 최근에 올린 사진
+    @Column(name = "cover_photo_id")
+    private Long coverPhotoId;
+}
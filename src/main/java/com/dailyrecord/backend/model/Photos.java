@@ -1,5 +1,6 @@
 package com.dailyrecord.backend.model;
 
+import com.dailyrecord.backend.geo.GeoHash;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -7,7 +8,9 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "photos")
+@Table(name = "photos", indexes = {
+        @Index(name = "idx_photos_member_geohash", columnList = "member_id, geohash")
+})
 @Getter
 @Setter
 public class Photos {
@@ -22,12 +25,27 @@ public class Photos {
     @Column(name = "file_size")
     private Long fileSize;
 
+    // 파일 내용의 SHA-256 (hex)
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "content_type", length = 64)
+    private String contentType;
+
     @Column(name = "latitude")
     private Double latitude;
 
     @Column(name = "longitude")
     private Double longitude;
 
+    // 위치 검색용 지오해시 (위도/경도에서 계산, 저장 시 갱신)
+    @Column(name = "geohash", length = 12)
+    private String geohash;
+
+    // 64비트 차이 해시(dHash). 비슷한 사진 찾기에 사용
+    @Column(name = "perceptual_hash")
+    private Long perceptualHash;
+
     @Column(name = "taken_at")
     private LocalDateTime takenAt;
 
@@ -51,10 +69,12 @@ public class Photos {
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
+        this.geohash = GeoHash.encodeOrNull(latitude, longitude);
     }
 
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        this.geohash = GeoHash.encodeOrNull(latitude, longitude);
     }
 }
\ No newline at end of file
@@ -26,6 +26,10 @@ public class Posts {
     @Column(name = "status", nullable = false)
     private String status;
 
+    // 게시글의 사진 스토리를 묶어 생성한 전체 글 (POST /posts/{id}/analyze?combined=true)
+    @Column(name = "ai_story", columnDefinition = "TEXT")
+    private String aiStory;
+
     @Column(name = "published_at")
     private LocalDateTime publishedAt;
 
@@ -0,0 +1,33 @@
+package com.dailyrecord.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "token_revocations", indexes = @Index(name = "idx_token_revocations_expires_at", columnList = "expires_at"))
+@Getter
+@Setter
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 개별 토큰 폐기 (로그아웃) 시 JWT ID
+    @Column(name = "token_id", length = 64)
+    private String tokenId;
+
+    // 회원 단위 폐기 (탈퇴, 비밀번호 변경) 시 회원 ID. revoked_at 이전에 발급된 토큰은 모두 무효
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+
+    // 이 시점 이후에는 대상 토큰이 모두 만료되므로 레코드를 삭제해도 된다.
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -3,10 +3,43 @@ package com.dailyrecord.backend.repository;
 import com.dailyrecord.backend.model.AiGenerateData;
 import com.dailyrecord.backend.model.Photos;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface AiGenerateDataRepository extends JpaRepository<AiGenerateData, Long> {
     Optional<AiGenerateData> findByPhoto(Photos photo); // Photo로 검색
     boolean existsByPhotoId(Long photoId);
+    Optional<AiGenerateData> findByPhotoId(Long photoId);
+    Optional<AiGenerateData> findByPhotoIdAndStatus(Long photoId, String status); // 완료된 분석만 조회할 때 (PENDING 선점 행 제외)
+    List<AiGenerateData> findByPhotoIdInAndStatus(Collection<Long> photoIds, String status);
+    boolean existsByPhotoIdAndStatus(Long photoId, String status);
+
+    // 오래된 PENDING 선점을 이어받음 (1 이면 성공)
+    @Modifying
+    @Transactional
+    @Query("update AiGenerateData a set a.claimedAt = :now, a.claimToken = :claimToken where a.photo.id = :photoId " +
+            "and a.status = 'PENDING' and a.claimedAt < :staleBefore")
+    int takeOverStaleClaim(@Param("photoId") Long photoId, @Param("now") LocalDateTime now,
+                           @Param("staleBefore") LocalDateTime staleBefore, @Param("claimToken") String claimToken);
+
+    // 분석 결과 저장. 선점을 아직 갖고 있을 때만 완료 상태로 바꿈 (0 이면 다른 요청이 선점을 이어받은 것)
+    @Modifying
+    @Transactional
+    @Query("update AiGenerateData a set a.status = 'COMPLETED', a.story = :story, a.caption = :caption, a.updatedAt = :now " +
+            "where a.photo.id = :photoId and a.status = 'PENDING' and a.claimToken = :claimToken")
+    int completeClaim(@Param("photoId") Long photoId, @Param("claimToken") String claimToken,
+                      @Param("story") String story, @Param("caption") String caption, @Param("now") LocalDateTime now);
+
+    // 분석 실패 시 선점 해제 (선점을 이어받은 다른 요청의 행은 지우지 않도록 소유자 확인)
+    @Modifying
+    @Transactional
+    @Query("delete from AiGenerateData a where a.photo.id = :photoId and a.status = 'PENDING' and a.claimToken = :claimToken")
+    int releaseClaim(@Param("photoId") Long photoId, @Param("claimToken") String claimToken);
 }
@@ -0,0 +1,31 @@
+package com.dailyrecord.backend.repository;
+
+import com.dailyrecord.backend.model.AiPromptCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AiPromptCacheRepository extends JpaRepository<AiPromptCache, String> {
+    Optional<AiPromptCache> findByPromptHashAndCreatedAtAfter(String promptHash, LocalDateTime createdAfter); // 만료되지 않은 항목
+
+    @Modifying
+    @Transactional
+    @Query("delete from AiPromptCache c where c.createdAt <= :before")
+    int deleteCreatedBefore(LocalDateTime before);
+
+    // 새로 저장하거나 기존 항목(만료된 항목 포함)의 응답과 생성 시각을 갱신.
+    // merge 는 created_at(updatable = false)을 바꾸지 않으므로 만료된 항목을 되살리려면 직접 갱신해야 한다.
+    @Modifying
+    @Transactional
+    @Query(value = "insert into ai_prompt_cache (prompt_hash, model, response, created_at) " +
+            "values (:promptHash, :model, :response, :now) " +
+            "on duplicate key update model = values(model), response = values(response), created_at = values(created_at)",
+            nativeQuery = true)
+    int upsert(String promptHash, String model, String response, LocalDateTime now);
+}
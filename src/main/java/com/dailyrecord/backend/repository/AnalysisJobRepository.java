@@ -0,0 +1,13 @@
+package com.dailyrecord.backend.repository;
+
+import com.dailyrecord.backend.model.AnalysisJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AnalysisJobRepository extends JpaRepository<AnalysisJob, String> {
+    List<AnalysisJob> findByStatusInOrderByCreatedAt(Collection<String> statuses); // 재시작 시 다시 실행할 작업
+}
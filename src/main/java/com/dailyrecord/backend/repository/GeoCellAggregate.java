@@ -0,0 +1,5 @@
+package com.dailyrecord.backend.repository;
+
+// 지오해시 셀(접두사) 단위 집계 행
+public record GeoCellAggregate(String cell, long count, double sumLatitude, double sumLongitude, long latestPhotoId) {
+}
@@ -0,0 +1,9 @@
+package com.dailyrecord.backend.repository;
+
+import com.dailyrecord.backend.model.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
@@ -2,7 +2,11 @@ package com.dailyrecord.backend.repository;
 
 import com.dailyrecord.backend.model.Members;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -10,4 +14,10 @@ import java.util.Optional;
 public interface MemberRepository extends JpaRepository<Members, Long> {
     Optional<Members> findByUsername(String username);
     Optional<Members> findByEmail(String email);
+
+    // 비밀번호 해시만 교체. 그 사이 비밀번호가 바뀌었으면(oldHash 와 다르면) 0 을 반환하고 아무것도 바꾸지 않음
+    @Modifying
+    @Transactional
+    @Query("update Members m set m.password = :newHash where m.id = :id and m.password = :oldHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
@@ -0,0 +1,7 @@
+package com.dailyrecord.backend.repository;
+
+// 유사 사진 검색용 (id, 지각 해시) 프로젝션
+public interface PerceptualHashView {
+    Long getId();
+    Long getPerceptualHash();
+}
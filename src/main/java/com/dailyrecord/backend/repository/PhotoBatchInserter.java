@@ -0,0 +1,71 @@
+package com.dailyrecord.backend.repository;
+
+import com.dailyrecord.backend.geo.GeoHash;
+import com.dailyrecord.backend.model.Photos;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Photos 여러 건을 JDBC 배치 INSERT 로 저장 (IDENTITY 전략에서는 JPA saveAll 이 배치되지 않음)
+// MySQL 에서는 JDBC URL 에 rewriteBatchedStatements=true 를 주면 한 번의 다중 VALUES INSERT 로 전송된다.
+@Repository
+public class PhotoBatchInserter {
+
+    private static final String INSERT_SQL = "insert into photos " +
+            "(file_name, file_size, content_hash, content_type, latitude, longitude, geohash, perceptual_hash, taken_at, created_at, member_id, post_id) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PhotoBatchInserter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 저장 후 생성된 ID 를 각 Photos 에 설정
+    @Transactional
+    public void insertAll(List<Photos> photos) {
+        if (photos.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                LocalDateTime now = LocalDateTime.now();
+                for (Photos photo : photos) {
+                    photo.setCreatedAt(now);
+                    photo.setGeohash(GeoHash.encodeOrNull(photo.getLatitude(), photo.getLongitude()));
+                    ps.setString(1, photo.getFileName());
+                    ps.setObject(2, photo.getFileSize(), Types.BIGINT);
+                    ps.setString(3, photo.getContentHash());
+                    ps.setString(4, photo.getContentType());
+                    ps.setObject(5, photo.getLatitude(), Types.DOUBLE);
+                    ps.setObject(6, photo.getLongitude(), Types.DOUBLE);
+                    ps.setString(7, photo.getGeohash());
+                    ps.setObject(8, photo.getPerceptualHash(), Types.BIGINT);
+                    ps.setTimestamp(9, photo.getTakenAt() != null ? Timestamp.valueOf(photo.getTakenAt()) : null);
+                    ps.setTimestamp(10, Timestamp.valueOf(now));
+                    ps.setLong(11, photo.getMember().getId());
+                    ps.setObject(12, photo.getPost() != null ? photo.getPost().getId() : null, Types.BIGINT);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int index = 0;
+                    while (keys.next() && index < photos.size()) {
+                        photos.get(index++).setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
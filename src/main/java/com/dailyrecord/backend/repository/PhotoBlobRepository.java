@@ -0,0 +1,28 @@
+package com.dailyrecord.backend.repository;
+
+import com.dailyrecord.backend.model.PhotoBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface PhotoBlobRepository extends JpaRepository<PhotoBlob, String> {
+
+    // 행이 없으면 참조 수 0 으로 만듦 (이후 findForUpdate 로 잠글 행을 보장)
+    @Modifying
+    @Transactional
+    @Query(value = "insert ignore into photo_blobs (content_hash, file_size, ref_count, created_at) " +
+            "values (:contentHash, :fileSize, 0, now())", nativeQuery = true)
+    int insertIfAbsent(String contentHash, long fileSize);
+
+    // 행 잠금 (select ... for update). 같은 해시의 파일 확인/참조 수 변경/파일 삭제를 노드 사이에서 직렬화
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from PhotoBlob b where b.contentHash = :contentHash")
+    Optional<PhotoBlob> findForUpdate(String contentHash);
+}
@@ -0,0 +1,100 @@
+package com.dailyrecord.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// (member_id, geohash) 인덱스를 이용한 지오해시 셀 단위 조회.
+// 셀마다 geohash LIKE '접두사%' 조건을 OR 로 묶어 인덱스 범위 검색이 되도록 한다.
+@Repository
+public class PhotoGeoRepository {
+
+    private static final RowMapper<PhotoLocation> ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp takenAt = rs.getTimestamp("taken_at");
+        return new PhotoLocation(rs.getLong("id"), rs.getString("file_name"),
+                rs.getDouble("latitude"), rs.getDouble("longitude"),
+                takenAt != null ? takenAt.toLocalDateTime() : null);
+    };
+
+    // 구면 거리(미터). GeoHash.distanceMeters 와 같은 지구 반지름 사용. 파라미터: 경도, 위도
+    private static final String DISTANCE_EXPR = "st_distance_sphere(point(longitude, latitude), point(?, ?), 6371000)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PhotoGeoRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 셀 후보 중 영역 안의 사진 limit 개 (영역 판정과 개수 제한을 DB 에서 처리)
+    public List<PhotoLocation> findInBox(Long memberId, Collection<String> cells, double minLat, double minLon,
+                                         double maxLat, double maxLon, int limit) {
+        if (cells.isEmpty()) {
+            return List.of();
+        }
+        List<Object> args = new ArrayList<>(cells.size() + 6);
+        StringBuilder sql = new StringBuilder("select id, file_name, latitude, longitude, taken_at from photos where ");
+        appendCells(sql, args, memberId, cells);
+        sql.append(" and latitude between ? and ? and longitude between ? and ? limit ?");
+        args.add(minLat);
+        args.add(maxLat);
+        args.add(minLon);
+        args.add(maxLon);
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    // 셀 후보 중 지점에서 radiusMeters 안의 사진을 가까운 순으로 limit 개
+    public List<PhotoLocation> findNearestInCells(Long memberId, Collection<String> cells, double latitude, double longitude,
+                                                  double radiusMeters, int limit) {
+        if (cells.isEmpty()) {
+            return List.of();
+        }
+        List<Object> args = new ArrayList<>(cells.size() + 6);
+        StringBuilder sql = new StringBuilder("select id, file_name, latitude, longitude, taken_at, ")
+                .append(DISTANCE_EXPR).append(" as distance_m from photos where ");
+        args.add(longitude);
+        args.add(latitude);
+        appendCells(sql, args, memberId, cells);
+        sql.append(" having distance_m <= ? order by distance_m limit ?");
+        args.add(radiusMeters);
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    // 위치가 있는 사진 중 가까운 순으로 limit 개 (검색 반경이 지구 전체를 덮을 때)
+    public List<PhotoLocation> findNearest(Long memberId, double latitude, double longitude, int limit) {
+        return jdbcTemplate.query("select id, file_name, latitude, longitude, taken_at from photos " +
+                "where member_id = ? and geohash is not null order by " + DISTANCE_EXPR + " limit ?",
+                ROW_MAPPER, memberId, longitude, latitude, limit);
+    }
+
+    private static void appendCells(StringBuilder sql, List<Object> args, Long memberId, Collection<String> cells) {
+        sql.append("member_id = ? and (");
+        args.add(memberId);
+        boolean first = true;
+        for (String cell : cells) {
+            if (!first) {
+                sql.append(" or ");
+            }
+            sql.append("geohash like ?");
+            args.add(cell + "%");
+            first = false;
+        }
+        sql.append(")");
+    }
+
+    // 회원 사진을 지오해시 앞 precision 글자 셀로 묶은 집계 (지도 클러스터용)
+    public List<GeoCellAggregate> aggregateCells(Long memberId, int precision) {
+        return jdbcTemplate.query("select substring(geohash, 1, ?) as cell, count(*) as cnt, " +
+                        "sum(latitude) as sum_lat, sum(longitude) as sum_lon, max(id) as latest_id " +
+                        "from photos where member_id = ? and geohash is not null group by substring(geohash, 1, ?)",
+                (rs, rowNum) -> new GeoCellAggregate(rs.getString("cell"), rs.getLong("cnt"),
+                        rs.getDouble("sum_lat"), rs.getDouble("sum_lon"), rs.getLong("latest_id")),
+                precision, memberId, precision);
+    }
+}
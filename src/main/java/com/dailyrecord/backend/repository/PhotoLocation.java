@@ -0,0 +1,7 @@
+package com.dailyrecord.backend.repository;
+
+import java.time.LocalDateTime;
+
+// 위치 검색 결과 행
+public record PhotoLocation(Long id, String fileName, double latitude, double longitude, LocalDateTime takenAt) {
+}
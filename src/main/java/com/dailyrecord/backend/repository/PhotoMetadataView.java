@@ -0,0 +1,14 @@
+package com.dailyrecord.backend.repository;
+
+import java.time.LocalDateTime;
+
+// 메타데이터 재추출에 필요한 컬럼만 조회하는 프로젝션
+public interface PhotoMetadataView {
+    Long getId();
+    String getFileName();
+    String getContentHash();
+    Double getLatitude();
+    Double getLongitude();
+    LocalDateTime getTakenAt();
+    String getGeohash();
+}
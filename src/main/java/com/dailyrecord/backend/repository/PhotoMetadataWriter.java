@@ -0,0 +1,43 @@
+package com.dailyrecord.backend.repository;
+
+import com.dailyrecord.backend.geo.GeoHash;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 재추출한 위치/촬영 시각(및 위치에서 계산한 지오해시)을 JDBC 배치 UPDATE 로 반영
+@Repository
+public class PhotoMetadataWriter {
+
+    private static final String UPDATE_SQL = "update photos set latitude = ?, longitude = ?, geohash = ?, taken_at = ?, updated_at = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PhotoMetadataWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public void updateAll(List<MetadataUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_SQL, updates, updates.size(), (ps, update) -> {
+            ps.setObject(1, update.latitude(), Types.DOUBLE);
+            ps.setObject(2, update.longitude(), Types.DOUBLE);
+            ps.setString(3, GeoHash.encodeOrNull(update.latitude(), update.longitude()));
+            ps.setTimestamp(4, update.takenAt() != null ? Timestamp.valueOf(update.takenAt()) : null);
+            ps.setTimestamp(5, now);
+            ps.setLong(6, update.id());
+        });
+    }
+
+    public record MetadataUpdate(Long id, Double latitude, Double longitude, LocalDateTime takenAt) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.dailyrecord.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+// photo_daily_counts 집계 테이블 갱신/조회 (MySQL upsert 사용)
+@Repository
+public class PhotoTimelineRepository {
+
+    // 사진의 타임라인 날짜: 촬영 시각, 없으면 업로드 시각
+    private static final String PHOTO_DATE_EXPR = "coalesce(taken_at, created_at)";
+
+    private static final RowMapper<TimelineRow> ROW_MAPPER = (rs, rowNum) -> {
+        long cover = rs.getLong("cover_photo_id");
+        return new TimelineRow(rs.getString("period"), rs.getLong("photo_count"), rs.wasNull() ? null : cover);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PhotoTimelineRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 사진 INSERT 와 같은 트랜잭션에서 호출해야 한다 (한쪽만 커밋되면 집계가 영구히 어긋남)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void increment(Long memberId, LocalDate date, Long photoId) {
+        jdbcTemplate.update("insert into photo_daily_counts (member_id, photo_date, photo_count, cover_photo_id) " +
+                        "values (?, ?, 1, ?) on duplicate key update photo_count = photo_count + 1, " +
+                        "cover_photo_id = greatest(coalesce(cover_photo_id, 0), values(cover_photo_id))",
+                memberId, Date.valueOf(date), photoId);
+    }
+
+    // 사진 삭제와 같은 트랜잭션에서 삭제 후 호출. 삭제된 사진이 대표 사진이었다면 남은 사진 중 가장 최근 것으로 교체한다.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void decrement(Long memberId, LocalDate date, Long photoId) {
+        Date day = Date.valueOf(date);
+        jdbcTemplate.update("update photo_daily_counts set photo_count = photo_count - 1 " +
+                "where member_id = ? and photo_date = ?", memberId, day);
+        int removed = jdbcTemplate.update("delete from photo_daily_counts " +
+                "where member_id = ? and photo_date = ? and photo_count <= 0", memberId, day);
+        if (removed == 0) {
+            jdbcTemplate.update("update photo_daily_counts set cover_photo_id = (" +
+                            "select max(id) from photos where member_id = ? and " + PHOTO_DATE_EXPR + " >= ? and " + PHOTO_DATE_EXPR + " < ?) " +
+                            "where member_id = ? and photo_date = ? and cover_photo_id = ?",
+                    memberId, Timestamp.valueOf(date.atStartOfDay()), Timestamp.valueOf(date.plusDays(1).atStartOfDay()),
+                    memberId, day, photoId);
+        }
+    }
+
+    public List<TimelineRow> findDays(Long memberId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("select date_format(photo_date, '%Y-%m-%d') as period, photo_count, cover_photo_id " +
+                        "from photo_daily_counts where member_id = ? and photo_date between ? and ? order by photo_date",
+                ROW_MAPPER, memberId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    // 월별 합계 (같은 인덱스 범위를 읽어 월 단위로 합산)
+    public List<TimelineRow> findMonths(Long memberId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("select date_format(photo_date, '%Y-%m') as period, sum(photo_count) as photo_count, " +
+                        "max(cover_photo_id) as cover_photo_id from photo_daily_counts " +
+                        "where member_id = ? and photo_date between ? and ? group by period order by period",
+                ROW_MAPPER, memberId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public boolean isEmpty() {
+        return jdbcTemplate.queryForList("select 1 from photo_daily_counts limit 1").isEmpty();
+    }
+
+    // photos 테이블에서 집계를 다시 계산 (최초 적용, 촬영 시각 일괄 변경 후)
+    // 업로드/삭제 트랜잭션과 같은 순서(photos -> photo_daily_counts)로 잠근다. 먼저 photos 전체에 공유 잠금을 걸어
+    // 재계산 중에는 사진 추가/삭제가 기다리게 하고, 이미 진행 중인 추가/삭제는 커밋될 때까지 기다린 뒤 계산한다.
+    // (InnoDB REPEATABLE READ 의 next-key 잠금 기준. 잠금 동안 업로드가 지연되므로 자주 호출하지 않는다)
+    @Transactional
+    public void rebuild() {
+        jdbcTemplate.queryForObject("select count(*) from photos lock in share mode", Long.class);
+        jdbcTemplate.update("delete from photo_daily_counts");
+        jdbcTemplate.update("insert into photo_daily_counts (member_id, photo_date, photo_count, cover_photo_id) " +
+                "select member_id, date(" + PHOTO_DATE_EXPR + "), count(*), max(id) from photos " +
+                "group by member_id, date(" + PHOTO_DATE_EXPR + ")");
+    }
+
+    public record TimelineRow(String period, long count, Long coverPhotoId) {
+    }
+}
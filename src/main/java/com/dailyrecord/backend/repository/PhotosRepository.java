@@ -1,9 +1,20 @@
 package com.dailyrecord.backend.repository;
 
 import com.dailyrecord.backend.model.Photos;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface PhotosRepository extends JpaRepository<Photos, Long> {
+    List<PhotoMetadataView> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable); // id 순 페이지 조회 (백필)
+    List<PerceptualHashView> findByMemberIdAndPerceptualHashIsNotNull(Long memberId); // 회원 사진의 지각 해시
+
+    // 게시글의 사진을 분석 데이터와 함께 한 번에 조회 (aiGenerateData 를 사진마다 따로 읽지 않음)
+    @Query("select p from Photos p left join fetch p.aiGenerateData where p.post.id = :postId order by p.id")
+    List<Photos> findByPostIdWithAnalysis(@Param("postId") Long postId);
 }
@@ -2,7 +2,11 @@ package com.dailyrecord.backend.repository;
 
 import com.dailyrecord.backend.model.Posts;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -10,4 +14,10 @@ import java.util.List;
 public interface PostRepository extends JpaRepository<Posts, Long> {
     List<Posts> findByMemberId(Long memberId); // 특정 회원의 게시글 목록
     List<Posts> findByStatus(String status); // 공개 상태 게시글 조회
+
+    // 게시글 전체 AI 스토리만 갱신 (다른 컬럼은 건드리지 않음)
+    @Modifying
+    @Transactional
+    @Query("update Posts p set p.aiStory = :aiStory, p.updatedAt = CURRENT_TIMESTAMP where p.id = :postId")
+    int updateAiStory(@Param("postId") Long postId, @Param("aiStory") String aiStory);
 }
@@ -0,0 +1,28 @@
+package com.dailyrecord.backend.repository;
+
+import com.dailyrecord.backend.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // 아직 사용되지 않은 토큰만 사용 처리 (0 이면 다른 요청이 먼저 사용함)
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now where t.id = :id and t.revokedAt is null")
+    int markUsed(Long id, LocalDateTime now);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revokedAt = :now where t.member.id = :memberId and t.revokedAt is null")
+    int revokeAllByMemberId(Long memberId, LocalDateTime now); // 회원의 모든 리프레시 토큰 폐기
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt <= :now")
+    int deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,22 @@
+package com.dailyrecord.backend.repository;
+
+import com.dailyrecord.backend.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+    List<TokenRevocation> findByExpiresAtAfter(LocalDateTime now); // 아직 유효한 폐기 목록
+    List<TokenRevocation> findByRevokedAtAfterAndExpiresAtAfter(LocalDateTime since, LocalDateTime now); // 최근 추가된 폐기 목록 (다른 서버 포함)
+
+    @Modifying
+    @Transactional
+    @Query("delete from TokenRevocation r where r.expiresAt <= :now")
+    int deleteExpired(LocalDateTime now);
+}
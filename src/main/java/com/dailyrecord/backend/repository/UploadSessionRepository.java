@@ -0,0 +1,13 @@
+package com.dailyrecord.backend.repository;
+
+import com.dailyrecord.backend.model.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+    List<UploadSession> findByStatusAndCreatedAtBefore(String status, LocalDateTime createdAt); // 만료된 업로드
+}
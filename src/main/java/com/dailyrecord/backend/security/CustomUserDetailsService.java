@@ -1,8 +1,6 @@
 package com.dailyrecord.backend.security;
 
-import com.dailyrecord.backend.model.Members;
 import com.dailyrecord.backend.repository.MemberRepository;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -12,22 +10,23 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final MemberRepository memberRepository;
+    private final MemberDetailsCache memberDetailsCache;
 
-    public CustomUserDetailsService(MemberRepository memberRepository) {
+    public CustomUserDetailsService(MemberRepository memberRepository, MemberDetailsCache memberDetailsCache) {
         this.memberRepository = memberRepository;
+        this.memberDetailsCache = memberDetailsCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        // 이메일로 사용자를 찾습니다.
-        Members members = memberRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        // 캐시에 없을 때만 이메일로 사용자를 찾습니다.
+        MemberPrincipal principal = memberDetailsCache.get(email, key -> memberRepository.findByEmail(key)
+                .map(MemberPrincipal::from)
+                .orElse(null));
 
-        // Spring Security의 UserDetails를 반환합니다.
-        return User.builder()
-                .username(members.getEmail())
-                .password(members.getPassword()) // 비밀번호는 암호화된 상태로 제공해야 합니다.
-                .roles("USER") // 역할 부여 (필요에 따라 변경 가능)
-                .build();
+        if (principal == null) {
+            throw new UsernameNotFoundException("User not found with email: " + email);
+        }
+        return principal;
     }
 }
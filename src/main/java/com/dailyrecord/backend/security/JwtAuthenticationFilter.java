@@ -1,5 +1,6 @@
 package com.dailyrecord.backend.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -23,8 +24,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws java.io.IOException, jakarta.servlet.ServletException {
 
         String token = getTokenFromRequest(request);
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            Authentication authentication = jwtTokenProvider.getAuthentication(token);
+        Claims claims = token != null ? jwtTokenProvider.resolveClaims(token) : null;
+        Authentication authentication = claims != null ? jwtTokenProvider.getAuthentication(claims) : null;
+        if (authentication != null) {
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
 
@@ -1,10 +1,12 @@
 package com.dailyrecord.backend.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -30,9 +32,11 @@ public class JwtCookieFilter extends OncePerRequestFilter {
                 if ("authToken".equals(cookie.getName())) { // 쿠키 이름이 "authToken"인지 확인
                     String token = cookie.getValue();
 
-                    // 토큰 유효성 확인 및 사용자 인증
-                    if (jwtTokenProvider.validateToken(token)) {
-                        SecurityContextHolder.getContext().setAuthentication(jwtTokenProvider.getAuthentication(token));
+                    // 토큰 유효성 확인 및 사용자 인증 (서명 검증은 한 번만 수행)
+                    Claims claims = jwtTokenProvider.resolveClaims(token);
+                    Authentication authentication = claims != null ? jwtTokenProvider.getAuthentication(claims) : null;
+                    if (authentication != null) {
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
                     }
                 }
             }
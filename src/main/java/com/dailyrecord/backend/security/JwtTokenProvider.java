@@ -1,30 +1,80 @@
 package com.dailyrecord.backend.security;
 
+import com.dailyrecord.backend.model.Members;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret.key}")
-    private String secretKey;
-
     private final long TOKEN_EXPIRATION_MS = 86400000L; // 24시간
 
+    // 로그인/리프레시로 발급하는 액세스 토큰 만료 시간
+    private final long accessTokenExpirationMs;
+
     private final UserDetailsService userDetailsService;
+    private final JwtTokenVerifier jwtTokenVerifier;
+    private final TokenRevocationService tokenRevocationService;
+
+    // true 이면 서명된 Claims 만으로 인증 정보를 만들고 회원 테이블을 조회하지 않는다.
+    private final boolean statelessAuth;
 
-    public JwtTokenProvider(UserDetailsService userDetailsService) {
+    // 관리자 권한(ROLE_ADMIN)을 주는 회원 이메일 (security.admin-emails, 쉼표로 구분)
+    private final Set<String> adminEmails;
+
+    public JwtTokenProvider(UserDetailsService userDetailsService,
+                            JwtTokenVerifier jwtTokenVerifier,
+                            TokenRevocationService tokenRevocationService,
+                            @Value("${jwt.stateless-auth.enabled:false}") boolean statelessAuth,
+                            @Value("${jwt.access-token.expiration-ms:900000}") long accessTokenExpirationMs,
+                            @Value("${security.admin-emails:}") String adminEmails) {
         this.userDetailsService = userDetailsService;
+        this.jwtTokenVerifier = jwtTokenVerifier;
+        this.tokenRevocationService = tokenRevocationService;
+        this.statelessAuth = statelessAuth;
+        this.accessTokenExpirationMs = accessTokenExpirationMs;
+        this.adminEmails = Arrays.stream(adminEmails.split(","))
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // 회원 액세스 토큰 생성 (Claims 만으로 인증할 수 있도록 회원 정보 포함)
+    public String generateAccessToken(Members members) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(members.getEmail())
+                .claim("username", members.getUsername())
+                .claim("memberId", members.getId())
+                .claim("active", !Boolean.FALSE.equals(members.getIsActive()))
+                .claim(TokenRevocationService.ISSUED_AT_MS_CLAIM, now) // iat 는 초 단위라 폐기 시각 비교용으로 ms 도 저장
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + accessTokenExpirationMs))
+                .signWith(jwtTokenVerifier.getSigningKey(), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    public long getAccessTokenExpirationMs() {
+        return accessTokenExpirationMs;
     }
 
     // 토큰 생성
@@ -33,38 +83,64 @@ public class JwtTokenProvider {
                 .setSubject(username) // 사용자 이름 설정
                 .setIssuedAt(new Date()) // 발행 시간
                 .setExpiration(new Date(System.currentTimeMillis() + TOKEN_EXPIRATION_MS)) // 만료 시간
-                .signWith(SignatureAlgorithm.HS512, secretKey) // 서명 알고리즘과 비밀키 설정
+                .signWith(jwtTokenVerifier.getSigningKey(), SignatureAlgorithm.HS512) // 서명 알고리즘과 비밀키 설정
                 .compact();
     }
 
+    // 토큰 검증 후 Claims 반환 (유효하지 않거나 폐기된 토큰이면 null)
+    public Claims resolveClaims(String token) {
+        Claims claims = jwtTokenVerifier.verify(token);
+        if (claims == null || tokenRevocationService.isRevoked(claims)) {
+            return null;
+        }
+        return claims;
+    }
+
     // 토큰 유효성 검증
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token); // 토큰 파싱 및 서명 검증
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            System.out.println("JWT validation error: " + e.getMessage());
-            return false;
-        }
+        return resolveClaims(token) != null;
     }
 
     // 토큰에서 사용자 이름 추출
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        Claims claims = resolveClaims(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     // 토큰에서 인증 정보 추출
     public Authentication getAuthentication(String token) {
-        String username = getUsernameFromToken(token); // 토큰에서 사용자 이름 추출
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username); // 사용자 정보 로드
-        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        Claims claims = resolveClaims(token);
+        return claims != null ? getAuthentication(claims) : null;
+    }
+
+    // 검증된 Claims 로 인증 정보 생성
+    public Authentication getAuthentication(Claims claims) {
+        UserDetails userDetails = statelessAuth && claims.get("memberId") != null
+                ? principalFromClaims(claims)
+                : userDetailsService.loadUserByUsername(claims.getSubject()); // 사용자 정보 로드
+        if (userDetails == null) {
+            return null;
+        }
+        Collection<? extends GrantedAuthority> authorities = userDetails.getAuthorities();
+        if (adminEmails.contains(userDetails.getUsername())) {
+            List<GrantedAuthority> withAdmin = new ArrayList<>(authorities);
+            withAdmin.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+            authorities = withAdmin;
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+    }
+
+    private MemberPrincipal principalFromClaims(Claims claims) {
+        Boolean active = claims.get("active", Boolean.class);
+        if (Boolean.FALSE.equals(active)) {
+            return null;
+        }
+        return new MemberPrincipal(
+                claims.get("memberId", Long.class),
+                claims.getSubject(),
+                claims.get("username", String.class),
+                null, // Claims 기반 인증에서는 비밀번호를 알 수 없음
+                true
+        );
     }
-}
\ No newline at end of file
+}
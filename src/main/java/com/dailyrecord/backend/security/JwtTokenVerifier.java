@@ -0,0 +1,100 @@
+package com.dailyrecord.backend.security;
+
+import com.dailyrecord.backend.cache.TtlCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+
+// JWT 서명 검증을 한 곳에서 처리하고, 검증된 Claims 를 캐시한다. (크기 제한 LRU, 토큰 만료 시각이 지나면 사용하지 않음)
+@Component
+public class JwtTokenVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenVerifier.class);
+
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    // 토큰 원문 대신 SHA-256 다이제스트를 키로 사용. 가득 차면 가장 오래 쓰지 않은 항목을 버리므로 추가는 O(1)
+    private final TtlCache<String, Claims> claimsCache;
+
+    public JwtTokenVerifier(@Value("${jwt.secret.key}") String secretKey,
+                            @Value("${jwt.claims-cache.max-size:10000}") int maxCacheSize,
+                            @Value("${jwt.claims-cache.ttl-seconds:900}") long ttlSeconds) {
+        // 기존 signWith(HS512, String) / setSigningKey(String) 과 동일하게 Base64 로 디코딩한 키를 사용
+        this.signingKey = new SecretKeySpec(Decoders.BASE64.decode(secretKey), SignatureAlgorithm.HS512.getJcaName());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.claimsCache = new TtlCache<>(maxCacheSize, ttlSeconds * 1000L);
+    }
+
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    // 토큰 검증 후 Claims 반환 (유효하지 않으면 null)
+    public Claims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+
+        Claims cached = claimsCache.get(digest);
+        if (cached != null) {
+            if (!isExpired(cached, now)) {
+                return cached;
+            }
+            claimsCache.invalidate(digest);
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody(); // 토큰 파싱 및 서명 검증
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("JWT validation error: {}", e.getMessage());
+            return null;
+        }
+
+        // 만료 시간이 없는 토큰은 캐시하지 않음
+        if (claims.getExpiration() != null) {
+            claimsCache.put(digest, claims);
+        }
+        return claims;
+    }
+
+    // 로그아웃 등으로 더 이상 사용하지 않는 토큰을 캐시에서 제거
+    public void evict(String token) {
+        if (token != null && !token.isEmpty()) {
+            claimsCache.invalidate(digest(token));
+        }
+    }
+
+    private static boolean isExpired(Claims claims, long now) {
+        Date expiration = claims.getExpiration();
+        return expiration == null || expiration.getTime() <= now;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
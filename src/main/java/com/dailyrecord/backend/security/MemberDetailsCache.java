@@ -0,0 +1,41 @@
+package com.dailyrecord.backend.security;
+
+import com.dailyrecord.backend.cache.TtlCache;
+import com.dailyrecord.backend.stats.StatsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Function;
+
+// 이메일 -> MemberPrincipal 캐시. 회원 정보 변경 시 MemberService 에서 명시적으로 무효화한다.
+@Component
+public class MemberDetailsCache implements StatsSource {
+
+    private final TtlCache<String, MemberPrincipal> cache;
+
+    public MemberDetailsCache(@Value("${member.cache.max-size:10000}") int maxSize,
+                              @Value("${member.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = new TtlCache<>(maxSize, ttlSeconds * 1000L);
+    }
+
+    public MemberPrincipal get(String email, Function<String, MemberPrincipal> loader) {
+        return cache.computeIfAbsent(email, loader);
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "memberDetailsCache";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,91 @@
+package com.dailyrecord.backend.security;
+
+import com.dailyrecord.backend.model.Members;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+// 인증 주체 + /api/members/me 에 필요한 회원 정보를 함께 담는 UserDetails
+public class MemberPrincipal implements UserDetails {
+
+    private static final List<GrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    private final Long memberId;
+    private final String email;
+    private final String memberName;
+    private final String password;
+    private final boolean active;
+
+    public MemberPrincipal(Long memberId, String email, String memberName, String password, boolean active) {
+        this.memberId = memberId;
+        this.email = email;
+        this.memberName = memberName;
+        this.password = password;
+        this.active = active;
+    }
+
+    public static MemberPrincipal from(Members members) {
+        return new MemberPrincipal(
+                members.getId(),
+                members.getEmail(),
+                members.getUsername(),
+                members.getPassword(), // 비밀번호는 암호화된 상태로 제공해야 합니다.
+                !Boolean.FALSE.equals(members.getIsActive())
+        );
+    }
+
+    public Long getMemberId() {
+        return memberId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    // Members.username (표시 이름). Spring Security 의 getUsername() 은 이메일을 반환한다.
+    public String getMemberName() {
+        return memberName;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return AUTHORITIES;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -0,0 +1,182 @@
+package com.dailyrecord.backend.security;
+
+import com.dailyrecord.backend.model.TokenRevocation;
+import com.dailyrecord.backend.repository.TokenRevocationRepository;
+import com.dailyrecord.backend.stats.StatsSource;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 폐기된 토큰 목록을 메모리에 유지하여 요청마다 DB 를 조회하지 않고 검사한다.
+// 시작 시 token_revocations 테이블에서 아직 만료되지 않은 항목만 다시 읽어오고,
+// 이후 주기적으로 최근 추가된 항목을 읽어 다른 서버에서 한 폐기도 반영한다.
+@Service
+public class TokenRevocationService implements StatsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // 발급 시각(ms). JWT 표준 iat 는 초 단위라 같은 초에 폐기 후 새로 발급한 토큰을 구분할 수 없음
+    public static final String ISSUED_AT_MS_CLAIM = "iatMs";
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final long maxTokenLifetimeMs;
+    private final long reloadOverlapMs;
+
+    // 마지막으로 DB 에서 읽은 시각 (다음 읽기는 이 시각 - reloadOverlapMs 이후 폐기된 항목)
+    private volatile long lastLoadedAt;
+
+    // jti -> 만료 시각(ms)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // 회원 ID -> 이 시각(ms) 이전에 발급된 토큰은 무효
+    private final Map<Long, MemberRevocation> revokedMembers = new ConcurrentHashMap<>();
+
+    public TokenRevocationService(TokenRevocationRepository tokenRevocationRepository,
+                                  @Value("${jwt.revocation.max-token-lifetime-ms:86400000}") long maxTokenLifetimeMs,
+                                  @Value("${jwt.revocation.reload-overlap-ms:60000}") long reloadOverlapMs) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.maxTokenLifetimeMs = maxTokenLifetimeMs;
+        this.reloadOverlapMs = reloadOverlapMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevocations() {
+        long now = System.currentTimeMillis();
+        apply(tokenRevocationRepository.findByExpiresAtAfter(toLocalDateTime(now)));
+        lastLoadedAt = now;
+        purgeExpired(now);
+        logger.info("Loaded {} token and {} member revocations", revokedTokens.size(), revokedMembers.size());
+    }
+
+    // 다른 서버에서 추가한 폐기 반영. 커밋 지연과 서버 간 시계 차이를 고려해 겹치는 구간을 다시 읽음 (중복 반영은 무해)
+    @Scheduled(initialDelayString = "${jwt.revocation.reload-interval-ms:30000}",
+            fixedDelayString = "${jwt.revocation.reload-interval-ms:30000}")
+    public void reloadRecentRevocations() {
+        if (lastLoadedAt == 0) {
+            return; // 시작 시 전체 읽기 전
+        }
+        long now = System.currentTimeMillis();
+        apply(tokenRevocationRepository.findByRevokedAtAfterAndExpiresAtAfter(
+                toLocalDateTime(lastLoadedAt - reloadOverlapMs), toLocalDateTime(now)));
+        lastLoadedAt = now;
+    }
+
+    private void apply(List<TokenRevocation> revocations) {
+        for (TokenRevocation revocation : revocations) {
+            long expiresAt = toEpochMillis(revocation.getExpiresAt());
+            if (revocation.getTokenId() != null) {
+                revokedTokens.put(revocation.getTokenId(), expiresAt);
+            }
+            if (revocation.getMemberId() != null) {
+                putMemberRevocation(revocation.getMemberId(), toEpochMillis(revocation.getRevokedAt()), expiresAt);
+            }
+        }
+    }
+
+    // 로그아웃: 해당 토큰만 폐기
+    public void revokeToken(Claims claims) {
+        if (claims == null || claims.getId() == null) {
+            return;
+        }
+        Date expiration = claims.getExpiration();
+        long expiresAt = expiration != null ? expiration.getTime() : System.currentTimeMillis() + maxTokenLifetimeMs;
+        revokedTokens.put(claims.getId(), expiresAt);
+
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setTokenId(claims.getId());
+        revocation.setRevokedAt(LocalDateTime.now());
+        revocation.setExpiresAt(toLocalDateTime(expiresAt));
+        tokenRevocationRepository.save(revocation);
+    }
+
+    // 탈퇴, 비밀번호 변경: 지금까지 발급된 해당 회원의 토큰을 모두 폐기
+    public void revokeMember(Long memberId) {
+        if (memberId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long expiresAt = now + maxTokenLifetimeMs;
+        putMemberRevocation(memberId, now, expiresAt);
+
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setMemberId(memberId);
+        revocation.setRevokedAt(toLocalDateTime(now));
+        revocation.setExpiresAt(toLocalDateTime(expiresAt));
+        tokenRevocationRepository.save(revocation);
+    }
+
+    public boolean isRevoked(Claims claims) {
+        if (claims.getId() != null && revokedTokens.containsKey(claims.getId())) {
+            return true;
+        }
+        if (revokedMembers.isEmpty()) {
+            return false;
+        }
+        Long memberId = claims.get("memberId", Long.class);
+        MemberRevocation revocation = memberId != null ? revokedMembers.get(memberId) : null;
+        if (revocation == null) {
+            return false;
+        }
+        // 폐기 시각보다 먼저 발급된 토큰만 무효 (폐기 직후 같은 초에 새로 발급한 토큰은 유효)
+        Long issuedAtMs = claims.get(ISSUED_AT_MS_CLAIM, Long.class);
+        if (issuedAtMs == null) {
+            // iatMs 가 없는 이전 토큰: 초 단위로 잘린 iat 라도 폐기 시각보다 작으면 무효
+            Date issuedAt = claims.getIssuedAt();
+            return issuedAt == null || issuedAt.getTime() < revocation.revokedAtMs;
+        }
+        return issuedAtMs < revocation.revokedAtMs;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:600000}")
+    public void purgeExpiredRevocations() {
+        purgeExpired(System.currentTimeMillis());
+        tokenRevocationRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private void purgeExpired(long now) {
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedMembers.values().removeIf(revocation -> revocation.expiresAt <= now);
+    }
+
+    private void putMemberRevocation(Long memberId, long revokedAtMs, long expiresAt) {
+        revokedMembers.merge(memberId, new MemberRevocation(revokedAtMs, expiresAt),
+                (a, b) -> new MemberRevocation(Math.max(a.revokedAtMs, b.revokedAtMs), Math.max(a.expiresAt, b.expiresAt)));
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    @Override
+    public String getStatsName() {
+        return "tokenRevocations";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("revokedTokens", revokedTokens.size());
+        stats.put("revokedMembers", revokedMembers.size());
+        return stats;
+    }
+
+    private record MemberRevocation(long revokedAtMs, long expiresAt) {
+    }
+}
@@ -0,0 +1,5 @@
+package com.dailyrecord.backend.service;
+
+// 비동기 분석 작업이 끝났을 때 (COMPLETED 또는 FAILED) 발행되는 이벤트
+public record AnalysisCompletedEvent(String jobId, Long photoId, String status) {
+}
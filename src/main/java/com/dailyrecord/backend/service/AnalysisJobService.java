@@ -0,0 +1,231 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.dto.AnalysisRequest;
+import com.dailyrecord.backend.model.AnalysisJob;
+import com.dailyrecord.backend.model.Photos;
+import com.dailyrecord.backend.repository.AnalysisJobRepository;
+import com.dailyrecord.backend.repository.PhotosRepository;
+import com.dailyrecord.backend.stats.LatencyStats;
+import com.dailyrecord.backend.stats.StatsSource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// 사진 분석을 작업으로 실행. 요청 스레드는 작업 ID 만 받아 바로 돌아가고,
+// 제한된 크기의 스레드 풀이 OpenAI 호출을 처리한다. 작업 상태는 analysis_jobs 테이블에 남는다.
+@Service
+public class AnalysisJobService implements StatsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisJobService.class);
+
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final AnalysisJobRepository analysisJobRepository;
+    private final PhotosRepository photosRepository;
+    private final PhotoAnalysisService photoAnalysisService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+
+    private final LatencyStats queueWait = new LatencyStats();
+    private final LatencyStats runLatency = new LatencyStats();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private final long shutdownGraceMs;
+    private volatile boolean shuttingDown;
+
+    public AnalysisJobService(AnalysisJobRepository analysisJobRepository, PhotosRepository photosRepository,
+                              PhotoAnalysisService photoAnalysisService, ApplicationEventPublisher eventPublisher,
+                              ObjectMapper objectMapper,
+                              @Value("${ai.analysis.threads:4}") int threads,
+                              @Value("${ai.analysis.queue-capacity:200}") int queueCapacity,
+                              @Value("${ai.analysis.shutdown-grace-ms:10000}") long shutdownGraceMs) {
+        this.analysisJobRepository = analysisJobRepository;
+        this.photosRepository = photosRepository;
+        this.photoAnalysisService = photoAnalysisService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.shutdownGraceMs = shutdownGraceMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ai-analysis-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // 재시작 전에 끝나지 않은 작업을 다시 실행
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingJobs() {
+        List<AnalysisJob> pending = analysisJobRepository.findByStatusInOrderByCreatedAt(List.of(STATUS_QUEUED, STATUS_RUNNING));
+        for (AnalysisJob job : pending) {
+            try {
+                dispatch(job, readRequest(job));
+            } catch (ResponseStatusException e) {
+                logger.warn("Analysis queue full, job {} stays failed", job.getId());
+            }
+        }
+        if (!pending.isEmpty()) {
+            logger.info("Resumed {} analysis jobs", pending.size());
+        }
+    }
+
+    public AnalysisJob submit(Photos photo, AnalysisRequest request) {
+        if (photoAnalysisService.isAnalyzed(photo.getId())) {
+            throw new IllegalStateException("이미 분석 데이터가 존재합니다.");
+        }
+        AnalysisJob job = new AnalysisJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setPhotoId(photo.getId());
+        job.setStatus(STATUS_QUEUED);
+        job.setRequest(writeRequest(request));
+        job = analysisJobRepository.save(job);
+        dispatch(job, request);
+        return job;
+    }
+
+    public AnalysisJob getJob(String jobId) {
+        return analysisJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 분석 작업이 존재하지 않습니다."));
+    }
+
+    private void dispatch(AnalysisJob job, AnalysisRequest request) {
+        String jobId = job.getId();
+        long queuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                queueWait.record(System.nanoTime() - queuedAt);
+                run(jobId, request);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            finish(job, STATUS_FAILED, "분석 대기열이 가득 찼습니다.", null);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "분석 요청이 많습니다. 잠시 후 다시 시도하세요.");
+        }
+    }
+
+    private void run(String jobId, AnalysisRequest request) {
+        long start = System.nanoTime();
+        AnalysisJob job = analysisJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        try {
+            job.setStatus(STATUS_RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+            job = analysisJobRepository.save(job);
+
+            Photos photo = photosRepository.findById(job.getPhotoId())
+                    .orElseThrow(() -> new IllegalStateException("해당 사진이 존재하지 않습니다."));
+            PhotoAnalysisService.AnalysisResult result = photoAnalysisService.analyze(photo, request);
+            finish(job, STATUS_COMPLETED, null, result.reusedFromPhotoId());
+            completed.increment();
+        } catch (Exception e) {
+            if (shuttingDown) {
+                // 종료 중 중단된 작업은 RUNNING 으로 남겨 다음 시작 시 다시 실행
+                logger.info("Analysis job {} interrupted by shutdown, will resume on restart", jobId);
+                return;
+            }
+            logger.error("Analysis job {} failed", jobId, e);
+            finish(job, STATUS_FAILED, e.getMessage(), null);
+            failed.increment();
+        } finally {
+            runLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    private void finish(AnalysisJob job, String status, String error, Long reusedFromPhotoId) {
+        job.setStatus(status);
+        job.setError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        job.setReusedFromPhotoId(reusedFromPhotoId);
+        job.setCompletedAt(LocalDateTime.now());
+        analysisJobRepository.save(job);
+        eventPublisher.publishEvent(new AnalysisCompletedEvent(job.getId(), job.getPhotoId(), status));
+    }
+
+    private String writeRequest(AnalysisRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request.toMap());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize analysis request", e);
+        }
+    }
+
+    private AnalysisRequest readRequest(AnalysisJob job) {
+        try {
+            return AnalysisRequest.from(job.getRequest() != null
+                    ? objectMapper.readValue(job.getRequest(), new TypeReference<Map<String, String>>() {})
+                    : Map.of());
+        } catch (JsonProcessingException e) {
+            logger.warn("Invalid request stored for analysis job {}", job.getId());
+            return AnalysisRequest.from(Map.of());
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "analysisJobs";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("completed", completed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("queueWait", queueWait.toMap());
+        stats.put("run", runLatency.toMap());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 대기 중인 작업은 시작하지 않고, 실행 중인 작업은 유예 시간 동안 끝나기를 기다린다.
+        // 남은 작업은 analysis_jobs 에 QUEUED/RUNNING 으로 남아 다음 시작 시 다시 실행된다
+        shuttingDown = true;
+        executor.getQueue().clear();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownGraceMs, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.dto.AnalysisRequest;
+import com.dailyrecord.backend.model.Photos;
+import com.dailyrecord.backend.stats.LatencyStats;
+import com.dailyrecord.backend.stats.StatsSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// 사진 분석 결과를 SSE 로 스트리밍. 글 조각이 생성되는 대로 "token" 이벤트로 보내고,
+// 완료되면 AiGenerateData 에 저장한 뒤 "done" 이벤트를 보낸다. (오류 시 "error" 이벤트)
+@Service
+public class AnalysisStreamService implements StatsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisStreamService.class);
+
+    private final PhotoAnalysisService photoAnalysisService;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor executor;
+
+    private final LatencyStats timeToFirstToken = new LatencyStats();
+    private final LatencyStats totalLatency = new LatencyStats();
+    private final LongAdder clientDisconnects = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public AnalysisStreamService(PhotoAnalysisService photoAnalysisService,
+                                 @Value("${ai.analysis.stream.timeout-ms:120000}") long timeoutMs,
+                                 @Value("${ai.analysis.stream.threads:8}") int threads,
+                                 @Value("${ai.analysis.stream.queue-capacity:16}") int queueCapacity) {
+        this.photoAnalysisService = photoAnalysisService;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ai-stream-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public SseEmitter stream(Photos photo, AnalysisRequest request) {
+        if (photoAnalysisService.isAnalyzed(photo.getId())) {
+            throw new IllegalStateException("이미 분석 데이터가 존재합니다.");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        AtomicBoolean connected = new AtomicBoolean(true);
+        emitter.onCompletion(() -> connected.set(false));
+        emitter.onTimeout(() -> connected.set(false));
+        emitter.onError(e -> connected.set(false));
+
+        try {
+            executor.execute(() -> run(photo, request, emitter, connected));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "분석 요청이 많습니다. 잠시 후 다시 시도하세요.");
+        }
+        return emitter;
+    }
+
+    private void run(Photos photo, AnalysisRequest request, SseEmitter emitter, AtomicBoolean connected) {
+        long start = System.nanoTime();
+        AtomicBoolean firstToken = new AtomicBoolean(true);
+        try {
+            PhotoAnalysisService.AnalysisResult result = photoAnalysisService.analyzeStreaming(photo, request, token -> {
+                if (firstToken.getAndSet(false)) {
+                    timeToFirstToken.record(System.nanoTime() - start);
+                }
+                // 클라이언트가 끊겨도 생성은 끝까지 받아 저장한다
+                if (connected.get()) {
+                    try {
+                        emitter.send(SseEmitter.event().name("token").data(token));
+                    } catch (IOException | IllegalStateException e) {
+                        connected.set(false);
+                        clientDisconnects.increment();
+                    }
+                }
+            });
+            totalLatency.record(System.nanoTime() - start);
+
+            if (connected.get()) {
+                Map<String, Object> done = new LinkedHashMap<>();
+                done.put("analysis", result.story());
+                done.put("caption", result.caption());
+                if (result.reusedFromPhotoId() != null) {
+                    done.put("reusedFromPhotoId", result.reusedFromPhotoId());
+                }
+                emitter.send(SseEmitter.event().name("done").data(done));
+                emitter.complete();
+            }
+        } catch (Exception e) {
+            failures.increment();
+            logger.error("사진 분석 스트리밍 중 오류 발생", e);
+            if (connected.get()) {
+                try {
+                    emitter.send(SseEmitter.event().name("error").data(Map.of("error", "사진 분석 중 오류 발생")));
+                    emitter.complete();
+                } catch (IOException | IllegalStateException sendError) {
+                    emitter.completeWithError(sendError);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "analysisStreams";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("rejected", rejected.sum());
+        stats.put("failures", failures.sum());
+        stats.put("clientDisconnects", clientDisconnects.sum());
+        stats.put("timeToFirstToken", timeToFirstToken.toMap());
+        stats.put("total", totalLatency.toMap());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
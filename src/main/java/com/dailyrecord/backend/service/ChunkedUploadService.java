@@ -0,0 +1,199 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.model.Photos;
+import com.dailyrecord.backend.model.UploadSession;
+import com.dailyrecord.backend.repository.UploadSessionRepository;
+import com.dailyrecord.backend.storage.PhotoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 이어받기 가능한 분할 업로드.
+// 시작 시 전체 크기만큼 파일을 미리 할당하고, 각 조각은 지정한 위치에 바로 기록한다.
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public static final String STATUS_IN_PROGRESS = "IN_PROGRESS";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    // 완료 처리 중 실패 (조각 파일은 이미 저장소로 옮겨졌거나 지워졌으므로 처음부터 다시 업로드해야 함)
+    public static final String STATUS_FAILED = "FAILED";
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final PhotoService photoService;
+    private final PhotoStorage photoStorage;
+    private final long maxFileSize;
+    private final long expireHours;
+
+    // 같은 업로드에 대한 조각 기록을 직렬화
+    private final Map<String, Object> sessionLocks = new ConcurrentHashMap<>();
+
+    public ChunkedUploadService(UploadSessionRepository uploadSessionRepository, PhotoService photoService, PhotoStorage photoStorage,
+                                @Value("${photo.upload.chunked.max-file-size:2147483648}") long maxFileSize,
+                                @Value("${photo.upload.chunked.expire-hours:24}") long expireHours) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.photoService = photoService;
+        this.photoStorage = photoStorage;
+        this.maxFileSize = maxFileSize;
+        this.expireHours = expireHours;
+    }
+
+    // 업로드 시작: 업로드 ID 발급 및 파일 미리 할당
+    public UploadSession init(Long memberId, Long postId, String fileName, long totalSize) throws IOException {
+        if (totalSize <= 0 || totalSize > maxFileSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "허용되지 않는 파일 크기입니다.");
+        }
+        photoService.findMember(memberId);
+        photoService.findPost(postId);
+
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setMemberId(memberId);
+        session.setPostId(postId);
+        session.setFileName(fileName);
+        session.setTotalSize(totalSize);
+        session.setCommittedOffset(0L);
+        session.setStatus(STATUS_IN_PROGRESS);
+
+        try (RandomAccessFile file = new RandomAccessFile(partFile(session.getId()).toFile(), "rw")) {
+            file.setLength(totalSize);
+        }
+        return uploadSessionRepository.save(session);
+    }
+
+    public UploadSession getStatus(String uploadId) {
+        return uploadSessionRepository.findById(uploadId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "업로드를 찾을 수 없습니다."));
+    }
+
+    // 조각 기록. offset 은 지금까지 확정된 위치와 같아야 한다. (다르면 409 와 함께 현재 위치를 알려줌)
+    public UploadSession appendChunk(String uploadId, long offset, InputStream in) throws IOException {
+        synchronized (lockFor(uploadId)) {
+            UploadSession session = getStatus(uploadId);
+            requireInProgress(session);
+            if (offset != session.getCommittedOffset()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "committedOffset=" + session.getCommittedOffset());
+            }
+
+            long position = offset;
+            try (FileChannel channel = FileChannel.open(partFile(uploadId), StandardOpenOption.WRITE)) {
+                byte[] bytes = new byte[BUFFER_SIZE];
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                try {
+                    int read;
+                    while ((read = in.read(bytes)) != -1) {
+                        if (position + read > session.getTotalSize()) {
+                            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "파일 크기를 초과했습니다.");
+                        }
+                        buffer.clear().limit(read);
+                        while (buffer.hasRemaining()) {
+                            position += channel.write(buffer, position);
+                        }
+                    }
+                } finally {
+                    // 확정 위치를 저장하기 전에 디스크에 반영
+                    channel.force(false);
+                }
+            } finally {
+                // 연결이 끊겨도 디스크에 기록된 만큼은 확정하여 그 위치부터 이어받을 수 있게 한다.
+                if (position != session.getCommittedOffset()) {
+                    session.setCommittedOffset(position);
+                    uploadSessionRepository.save(session);
+                }
+            }
+            return session;
+        }
+    }
+
+    // 업로드 완료: EXIF 추출 및 Photos 생성
+    public Photos complete(String uploadId) throws IOException {
+        synchronized (lockFor(uploadId)) {
+            UploadSession session = getStatus(uploadId);
+            requireInProgress(session);
+            if (!session.getCommittedOffset().equals(session.getTotalSize())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "committedOffset=" + session.getCommittedOffset());
+            }
+
+            Photos photo;
+            try {
+                photo = photoService.createFromFile(partFile(uploadId), session.getFileName(), session.getMemberId(), session.getPostId());
+            } catch (IOException | RuntimeException e) {
+                // 조각 파일을 저장소로 옮긴 뒤 실패했으면 다시 완료할 수 없으므로 실패로 표시 (옮기기 전이면 그대로 재시도 가능)
+                if (!Files.exists(partFile(uploadId))) {
+                    markFailed(session);
+                }
+                throw e;
+            }
+            session.setStatus(STATUS_COMPLETED);
+            session.setPhotoId(photo.getId());
+            uploadSessionRepository.save(session);
+            sessionLocks.remove(uploadId);
+            return photo;
+        }
+    }
+
+    private static void requireInProgress(UploadSession session) {
+        if (STATUS_FAILED.equals(session.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "실패한 업로드입니다. 처음부터 다시 업로드하세요.");
+        }
+        if (!STATUS_IN_PROGRESS.equals(session.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "이미 완료된 업로드입니다.");
+        }
+    }
+
+    private void markFailed(UploadSession session) {
+        try {
+            session.setStatus(STATUS_FAILED);
+            uploadSessionRepository.save(session);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to mark upload session {} as failed: {}", session.getId(), e.getMessage());
+        }
+        sessionLocks.remove(session.getId());
+    }
+
+    // 오래된 미완료 업로드 정리
+    @Scheduled(fixedDelayString = "${photo.upload.chunked.cleanup-interval-ms:3600000}")
+    public void cleanupExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(expireHours);
+        uploadSessionRepository.deleteAll(uploadSessionRepository.findByStatusAndCreatedAtBefore(STATUS_FAILED, cutoff));
+        for (UploadSession session : uploadSessionRepository.findByStatusAndCreatedAtBefore(STATUS_IN_PROGRESS, cutoff)) {
+            synchronized (lockFor(session.getId())) {
+                try {
+                    Files.deleteIfExists(partFile(session.getId()));
+                    uploadSessionRepository.delete(session);
+                    logger.info("Expired upload session {}", session.getId());
+                } catch (IOException e) {
+                    logger.warn("Failed to clean up upload session {}: {}", session.getId(), e.getMessage());
+                }
+            }
+            sessionLocks.remove(session.getId());
+        }
+    }
+
+    private Path partFile(String uploadId) {
+        return photoStorage.tempFile("upload-" + uploadId + ".part");
+    }
+
+    private Object lockFor(String uploadId) {
+        return sessionLocks.computeIfAbsent(uploadId, id -> new Object());
+    }
+}
@@ -0,0 +1,302 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.model.JobCheckpoint;
+import com.dailyrecord.backend.repository.JobCheckpointRepository;
+import com.dailyrecord.backend.repository.PhotoMetadataView;
+import com.dailyrecord.backend.repository.PhotoMetadataWriter;
+import com.dailyrecord.backend.repository.PhotoMetadataWriter.MetadataUpdate;
+import com.dailyrecord.backend.repository.PhotosRepository;
+import com.dailyrecord.backend.stats.LatencyStats;
+import com.dailyrecord.backend.stats.StatsSource;
+import com.dailyrecord.backend.storage.PhotoStorage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 기존 사진의 EXIF 재추출 백필.
+// 예전 ExifService 가 GPS 를 채우지 않고 촬영 시각이 없으면 2000-01-01 을 넣었기 때문에 이를 바로잡는다.
+// id 순으로 페이지를 읽어 병렬로 재추출하고, 변경분은 배치 UPDATE 후 체크포인트를 남긴다.
+@Service
+public class ExifBackfillService implements StatsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExifBackfillService.class);
+
+    public static final String JOB_NAME = "exif-backfill";
+
+    // throttle() 한 번에 자는 최대 시간
+    private static final long THROTTLE_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // 예전 ExifService 가 값이 없을 때 채우던 기본값
+    private static final LocalDateTime PLACEHOLDER_TAKEN_AT = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final PhotosRepository photosRepository;
+    private final PhotoMetadataWriter photoMetadataWriter;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final PhotoStorage photoStorage;
+    private final ExifService exifService;
+    private final PhotoClusterService photoClusterService;
+    private final PhotoTimelineService photoTimelineService;
+    private final int pageSize;
+    private final ThreadPoolExecutor workers;
+
+    private volatile int maxPhotosPerSecond;
+    private volatile boolean running;
+    private volatile boolean stopRequested;
+    private volatile JobCheckpoint checkpoint;
+    private volatile long totalPhotos;
+    private volatile long runStartedNanos;
+    private volatile long processedThisRun;
+    private volatile long updatedThisRun;
+    private volatile LocalDateTime startedAt;
+    private volatile String lastError;
+
+    private final LatencyStats pageLatency = new LatencyStats();
+
+    public ExifBackfillService(PhotosRepository photosRepository, PhotoMetadataWriter photoMetadataWriter,
+                               JobCheckpointRepository jobCheckpointRepository, PhotoStorage photoStorage, ExifService exifService,
+                               PhotoClusterService photoClusterService, PhotoTimelineService photoTimelineService,
+                               @Value("${photo.exif-backfill.page-size:200}") int pageSize,
+                               @Value("${photo.exif-backfill.threads:2}") int threads,
+                               @Value("${photo.exif-backfill.max-photos-per-second:50}") int maxPhotosPerSecond) {
+        this.photosRepository = photosRepository;
+        this.photoMetadataWriter = photoMetadataWriter;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.photoStorage = photoStorage;
+        this.exifService = exifService;
+        this.photoClusterService = photoClusterService;
+        this.photoTimelineService = photoTimelineService;
+        this.pageSize = pageSize;
+        this.maxPhotosPerSecond = maxPhotosPerSecond;
+        AtomicInteger threadNumber = new AtomicInteger();
+        // 대기열이 가득 차면 호출 스레드가 직접 처리 (자연스러운 역압)
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(pageSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "exif-backfill-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // 백필 시작. 이미 실행 중이면 false. restart=true 이면 처음부터 다시 처리한다.
+    public synchronized boolean start(boolean restart, Integer maxPerSecond) {
+        if (running) {
+            return false;
+        }
+        if (maxPerSecond != null) {
+            setMaxPhotosPerSecond(maxPerSecond);
+        }
+        JobCheckpoint loaded = jobCheckpointRepository.findById(JOB_NAME).orElse(null);
+        if (loaded == null || restart) {
+            loaded = newCheckpoint(loaded);
+        }
+        checkpoint = loaded;
+        totalPhotos = photosRepository.count();
+        processedThisRun = 0;
+        updatedThisRun = 0;
+        runStartedNanos = System.nanoTime();
+        startedAt = LocalDateTime.now();
+        lastError = null;
+        stopRequested = false;
+        running = true;
+
+        Thread coordinator = new Thread(this::run, "exif-backfill-coordinator");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return true;
+    }
+
+    // 현재 페이지까지 처리하고 멈춤 (다음 시작 시 체크포인트부터 이어서 처리)
+    public void stop() {
+        stopRequested = true;
+    }
+
+    // 실행 중에도 처리 속도 제한을 바꿀 수 있다 (0 이하이면 제한 없음)
+    public void setMaxPhotosPerSecond(int maxPhotosPerSecond) {
+        this.maxPhotosPerSecond = maxPhotosPerSecond;
+    }
+
+    public Map<String, Object> getStatus() {
+        return getStats();
+    }
+
+    private void run() {
+        try {
+            while (!stopRequested) {
+                long pageStart = System.nanoTime();
+                List<PhotoMetadataView> page = photosRepository.findByIdGreaterThanOrderByIdAsc(
+                        checkpoint.getLastId(), PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    logger.info("EXIF backfill finished: processed={}, updated={}, failed={}",
+                            checkpoint.getProcessed(), checkpoint.getUpdated(), checkpoint.getFailed());
+                    break;
+                }
+                processPage(page);
+                pageLatency.record(System.nanoTime() - pageStart);
+                throttle();
+            }
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            logger.error("EXIF backfill stopped at id {}", checkpoint.getLastId(), e);
+        } finally {
+            if (updatedThisRun > 0) {
+                rebuildTimeline(); // 촬영 시각이 바뀌었으므로 타임라인 집계를 다시 계산
+            }
+            running = false;
+        }
+    }
+
+    private void rebuildTimeline() {
+        try {
+            photoTimelineService.rebuild();
+        } catch (Exception e) {
+            logger.error("Failed to rebuild photo timeline after EXIF backfill", e);
+        }
+    }
+
+    private void processPage(List<PhotoMetadataView> page) {
+        List<CompletableFuture<Result>> futures = new ArrayList<>(page.size());
+        for (PhotoMetadataView row : page) {
+            futures.add(CompletableFuture.supplyAsync(() -> reextract(row), workers));
+        }
+
+        List<MetadataUpdate> updates = new ArrayList<>();
+        long failed = 0;
+        for (CompletableFuture<Result> future : futures) {
+            Result result = future.join();
+            if (result.failed()) {
+                failed++;
+            } else if (result.update() != null) {
+                updates.add(result.update());
+            }
+        }
+        photoMetadataWriter.updateAll(updates);
+        if (!updates.isEmpty()) {
+            photoClusterService.invalidateAll(); // 위치가 바뀐 사진이 있으면 지도 클러스터 캐시를 버림
+        }
+
+        JobCheckpoint current = checkpoint;
+        current.setLastId(page.get(page.size() - 1).getId());
+        current.setProcessed(current.getProcessed() + page.size());
+        current.setUpdated(current.getUpdated() + updates.size());
+        current.setFailed(current.getFailed() + failed);
+        checkpoint = jobCheckpointRepository.save(current);
+        processedThisRun += page.size();
+        updatedThisRun += updates.size();
+    }
+
+    private Result reextract(PhotoMetadataView row) {
+        try {
+            Path file = row.getContentHash() != null
+                    ? photoStorage.resolve(row.getContentHash())
+                    : photoStorage.resolveLegacy(row.getFileName());
+            if (!Files.isRegularFile(file)) {
+                return new Result(null, true);
+            }
+            ExifResult exif = exifService.extract(file);
+
+            // 새로 읽은 값이 있으면 사용하고, 없으면 예전 기본값만 지운다 (실제 값은 유지)
+            Double latitude = exif.hasLocation() ? exif.latitude() : placeholderLocation(row) ? null : row.getLatitude();
+            Double longitude = exif.hasLocation() ? exif.longitude() : placeholderLocation(row) ? null : row.getLongitude();
+            LocalDateTime takenAt = exif.takenAt() != null ? exif.takenAt()
+                    : PLACEHOLDER_TAKEN_AT.equals(row.getTakenAt()) ? null : row.getTakenAt();
+
+            // 값이 같아도 지오해시가 비어 있으면 함께 채운다
+            boolean missingGeohash = latitude != null && longitude != null && row.getGeohash() == null;
+            if (Objects.equals(latitude, row.getLatitude()) && Objects.equals(longitude, row.getLongitude())
+                    && Objects.equals(takenAt, row.getTakenAt()) && !missingGeohash) {
+                return new Result(null, false);
+            }
+            return new Result(new MetadataUpdate(row.getId(), latitude, longitude, takenAt), false);
+        } catch (Exception e) {
+            logger.debug("EXIF backfill failed for photo {}: {}", row.getId(), e.getMessage());
+            return new Result(null, true);
+        }
+    }
+
+    private static boolean placeholderLocation(PhotoMetadataView row) {
+        return Objects.equals(row.getLatitude(), 0.0) && Objects.equals(row.getLongitude(), 0.0);
+    }
+
+    // 이번 실행의 평균 처리 속도가 제한을 넘지 않도록 대기.
+    // 짧게 나눠 자면서 중단 요청과 바뀐 속도 제한을 바로 반영한다.
+    private void throttle() throws InterruptedException {
+        while (!stopRequested) {
+            int limit = maxPhotosPerSecond;
+            if (limit <= 0) {
+                return;
+            }
+            long expectedNanos = processedThisRun * TimeUnit.SECONDS.toNanos(1) / limit;
+            long aheadNanos = expectedNanos - (System.nanoTime() - runStartedNanos);
+            if (aheadNanos <= 0) {
+                return;
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(aheadNanos, THROTTLE_SLICE_NANOS));
+        }
+    }
+
+    private JobCheckpoint newCheckpoint(JobCheckpoint existing) {
+        JobCheckpoint created = existing != null ? existing : new JobCheckpoint();
+        created.setJobName(JOB_NAME);
+        created.setLastId(0L);
+        created.setProcessed(0L);
+        created.setUpdated(0L);
+        created.setFailed(0L);
+        return jobCheckpointRepository.save(created);
+    }
+
+    @Override
+    public String getStatsName() {
+        return "exifBackfill";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        JobCheckpoint current = checkpoint;
+        stats.put("running", running);
+        stats.put("maxPhotosPerSecond", maxPhotosPerSecond);
+        stats.put("totalPhotos", totalPhotos);
+        if (current != null) {
+            stats.put("lastId", current.getLastId());
+            stats.put("processed", current.getProcessed());
+            stats.put("updated", current.getUpdated());
+            stats.put("failed", current.getFailed());
+        }
+        if (startedAt != null) {
+            double elapsedSeconds = (System.nanoTime() - runStartedNanos) / 1_000_000_000.0;
+            stats.put("startedAt", startedAt.toString());
+            stats.put("photosPerSecond", elapsedSeconds > 0 ? Math.round(processedThisRun / elapsedSeconds * 10) / 10.0 : 0.0);
+        }
+        stats.put("pageLatency", pageLatency.toMap());
+        stats.put("lastError", lastError);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopRequested = true;
+        workers.shutdown();
+    }
+
+    private record Result(MetadataUpdate update, boolean failed) {
+    }
+}
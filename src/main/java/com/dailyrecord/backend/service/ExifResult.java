@@ -0,0 +1,25 @@
+package com.dailyrecord.backend.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// EXIF 추출 결과. 위치가 없으면 hasLocation=false, 촬영 시각이 없으면 takenAt=null
+public record ExifResult(boolean hasLocation, double latitude, double longitude,
+                         LocalDateTime takenAt, ZoneOffset offset, int orientation) {
+
+    public static final ExifResult EMPTY = new ExifResult(false, 0.0, 0.0, null, null, 1);
+
+    public Double latitudeOrNull() {
+        return hasLocation ? latitude : null;
+    }
+
+    public Double longitudeOrNull() {
+        return hasLocation ? longitude : null;
+    }
+
+    // 촬영 시각의 시간대 정보(OffsetTimeOriginal)가 있을 때만 Instant 로 변환
+    public Instant takenAtInstant() {
+        return takenAt != null && offset != null ? takenAt.toInstant(offset) : null;
+    }
+}
@@ -1,46 +1,139 @@
 package com.dailyrecord.backend.service;
 
 import com.drew.imaging.ImageMetadataReader;
-import com.drew.metadata.Directory;
+import com.drew.imaging.heif.HeifMetadataReader;
+import com.drew.imaging.jpeg.JpegMetadataReader;
+import com.drew.lang.GeoLocation;
 import com.drew.metadata.Metadata;
-import com.drew.metadata.Tag;
+import com.drew.metadata.exif.ExifDirectoryBase;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import com.drew.metadata.exif.ExifReader;
 import com.drew.metadata.exif.ExifSubIFDDirectory;
+import com.drew.metadata.exif.GpsDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
+// 사진 메타데이터(EXIF) 추출.
+// JPEG 는 APP1 세그먼트만 읽고 이미지 데이터(SOS) 전에 멈추므로 비용이 파일 크기가 아닌 메타데이터 크기에 비례한다.
 @Service
 public class ExifService {
 
-    public Map<String, String> extractExifData(File imageFile) {
-        Map<String, String> exifData = new HashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(ExifService.class);
+
+    // EXIF 날짜 형식 (예: 2024:05:01 13:22:10)
+    private static final DateTimeFormatter EXIF_DATE_TIME = DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss");
+
+    public ExifResult extract(Path imageFile) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(imageFile))) {
+            return read(in);
+        } catch (Exception e) {
+            logger.debug("메타데이터 추출 실패 ({}): {}", imageFile.getFileName(), e.getMessage());
+            return ExifResult.EMPTY;
+        }
+    }
+
+    // 업로드 중 메모리에 담아 둔 파일 앞부분에서 EXIF 추출.
+    // 앞부분만으로 메타데이터를 다 읽지 못한 경우에만 저장된 파일을 다시 읽는다.
+    public ExifResult extract(byte[] head, int length, boolean complete, Path imageFile) {
         try {
-            Metadata metadata = ImageMetadataReader.readMetadata(imageFile);
-            ExifSubIFDDirectory exifDir = metadata.getFirstDirectoryOfType(ExifSubIFDDirectory.class);
+            return read(new ByteArrayInputStream(head, 0, length));
+        } catch (Exception e) {
+            if (complete) {
+                logger.debug("메타데이터 추출 실패 ({}): {}", imageFile.getFileName(), e.getMessage());
+                return ExifResult.EMPTY;
+            }
+            return extract(imageFile);
+        }
+    }
 
-            if (exifDir != null && exifDir.getDateOriginal() != null) {
-                // 날짜를 문자열로 변환
-                String dateString = exifDir.getDateOriginal().toString();
+    private ExifResult read(InputStream in) throws Exception {
+        // mark/reset 을 지원하는 스트림이어야 함 (BufferedInputStream, ByteArrayInputStream)
+        in.mark(MediaFormat.SNIFF_LENGTH);
+        byte[] header = in.readNBytes(MediaFormat.SNIFF_LENGTH);
+        in.reset();
 
-                // DateTimeFormatter로 문자열 파싱
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss z yyyy", java.util.Locale.ENGLISH);
-                LocalDateTime takenAt = LocalDateTime.parse(dateString, formatter);
+        MediaFormat format = MediaFormat.detect(header, header.length);
+        Metadata metadata;
+        if (format == MediaFormat.JPEG) {
+            metadata = JpegMetadataReader.readMetadata(in, List.of(new ExifReader()));
+        } else if (format == MediaFormat.HEIC) {
+            metadata = HeifMetadataReader.readMetadata(in);
+        } else {
+            metadata = ImageMetadataReader.readMetadata(in);
+        }
+        return toResult(metadata);
+    }
 
-                exifData.put("TakenAt", takenAt.toString());
+    private ExifResult toResult(Metadata metadata) throws IOException {
+        boolean hasLocation = false;
+        double latitude = 0.0;
+        double longitude = 0.0;
+        GpsDirectory gps = metadata.getFirstDirectoryOfType(GpsDirectory.class);
+        if (gps != null) {
+            GeoLocation location = gps.getGeoLocation();
+            if (location != null && !location.isZero()) {
+                hasLocation = true;
+                latitude = location.getLatitude();
+                longitude = location.getLongitude();
             }
-        } catch (Exception e) {
-            System.out.println("메타데이터 추출 실패: 기본값을 반환합니다.");
         }
 
-        // 기본값 설정
-        exifData.putIfAbsent("TakenAt", "2000-01-01T00:00:00");
-        exifData.putIfAbsent("GPS Latitude", "0.0");
-        exifData.putIfAbsent("GPS Longitude", "0.0");
+        ExifSubIFDDirectory subIfd = metadata.getFirstDirectoryOfType(ExifSubIFDDirectory.class);
+        ExifIFD0Directory ifd0 = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
 
-        return exifData;
+        LocalDateTime takenAt = null;
+        ZoneOffset offset = null;
+        if (subIfd != null) {
+            takenAt = parseDateTime(subIfd.getString(ExifDirectoryBase.TAG_DATETIME_ORIGINAL));
+            offset = parseOffset(subIfd.getString(ExifDirectoryBase.TAG_TIME_ZONE_ORIGINAL));
+        }
+        if (takenAt == null && ifd0 != null) {
+            takenAt = parseDateTime(ifd0.getString(ExifDirectoryBase.TAG_DATETIME));
+        }
+
+        int orientation = 1;
+        if (ifd0 != null && ifd0.containsTag(ExifDirectoryBase.TAG_ORIENTATION)) {
+            Integer value = ifd0.getInteger(ExifDirectoryBase.TAG_ORIENTATION);
+            if (value != null && value >= 1 && value <= 8) {
+                orientation = value;
+            }
+        }
+
+        return new ExifResult(hasLocation, latitude, longitude, takenAt, offset, orientation);
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        if (value == null || value.length() < 19) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.substring(0, 19), EXIF_DATE_TIME);
+        } catch (DateTimeException e) {
+            return null; // 0000:00:00 00:00:00 등
+        }
+    }
+
+    private static ZoneOffset parseOffset(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return ZoneOffset.of(value.trim());
+        } catch (DateTimeException e) {
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
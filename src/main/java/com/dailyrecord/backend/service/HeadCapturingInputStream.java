@@ -0,0 +1,62 @@
+package com.dailyrecord.backend.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// 스트림을 그대로 전달하면서 앞부분 limit 바이트를 메모리에 복사해 둔다. (EXIF 파싱용)
+public class HeadCapturingInputStream extends FilterInputStream {
+
+    private final byte[] head;
+    private int headLength;
+    private long totalLength;
+
+    public HeadCapturingInputStream(InputStream in, int limit) {
+        super(in);
+        this.head = new byte[limit];
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            if (headLength < head.length) {
+                head[headLength++] = (byte) b;
+            }
+            totalLength++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0) {
+            if (headLength < head.length) {
+                int copy = Math.min(read, head.length - headLength);
+                System.arraycopy(buffer, offset, head, headLength, copy);
+                headLength += copy;
+            }
+            totalLength += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        throw new IOException("skip is not supported");
+    }
+
+    public byte[] getHead() {
+        return head;
+    }
+
+    public int getHeadLength() {
+        return headLength;
+    }
+
+    // 스트림 전체가 head 에 들어갔는지 여부
+    public boolean isComplete() {
+        return totalLength <= headLength;
+    }
+}
@@ -0,0 +1,131 @@
+package com.dailyrecord.backend.service;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+// 썸네일/분석용 이미지 축소 유틸리티 (ImageIO 기반)
+public final class ImageResizer {
+
+    private ImageResizer() {
+    }
+
+    // 긴 변이 minLongEdge 이상이 되도록 서브샘플링하여 디코딩 (큰 원본을 전부 메모리에 올리지 않음)
+    public static BufferedImage read(Path file, int minLongEdge) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                throw new IOException("Cannot open image: " + file);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IIOException("Unsupported image format: " + file.getFileName());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longEdge / Math.max(1, minLongEdge));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 긴 변을 maxLongEdge 이하로 축소 (확대하지 않음). 큰 비율은 절반씩 줄여 품질 유지
+    public static BufferedImage scaleToFit(BufferedImage source, int maxLongEdge) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int longEdge = Math.max(width, height);
+        if (longEdge <= maxLongEdge) {
+            return toRgb(source);
+        }
+        double scale = (double) maxLongEdge / longEdge;
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = toRgb(source);
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            current = draw(current, currentWidth, currentHeight, new AffineTransform(
+                    (double) currentWidth / current.getWidth(), 0, 0, (double) currentHeight / current.getHeight(), 0, 0));
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    // EXIF Orientation(1~8)에 맞게 회전/반전
+    public static BufferedImage applyOrientation(BufferedImage image, int orientation) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        switch (orientation) {
+            case 2:
+                return draw(image, w, h, new AffineTransform(-1, 0, 0, 1, w, 0));
+            case 3:
+                return draw(image, w, h, new AffineTransform(-1, 0, 0, -1, w, h));
+            case 4:
+                return draw(image, w, h, new AffineTransform(1, 0, 0, -1, 0, h));
+            case 5:
+                return draw(image, h, w, new AffineTransform(0, 1, 1, 0, 0, 0));
+            case 6:
+                return draw(image, h, w, new AffineTransform(0, 1, -1, 0, h, 0));
+            case 7:
+                return draw(image, h, w, new AffineTransform(0, -1, -1, 0, h, w));
+            case 8:
+                return draw(image, h, w, new AffineTransform(0, -1, 1, 0, 0, w));
+            default:
+                return image;
+        }
+    }
+
+    public static void writeJpeg(BufferedImage image, float quality, OutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(toRgb(image), null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        return draw(image, image.getWidth(), image.getHeight(), new AffineTransform());
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, AffineTransform transform) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+}
@@ -0,0 +1,83 @@
+package com.dailyrecord.backend.service;
+
+import java.nio.charset.StandardCharsets;
+
+// 파일 앞부분(매직 바이트)으로 판별한 업로드 파일 형식
+public enum MediaFormat {
+    JPEG("image/jpeg", true),
+    PNG("image/png", true),
+    GIF("image/gif", true),
+    WEBP("image/webp", true),
+    HEIC("image/heic", true),
+    TIFF("image/tiff", true),
+    BMP("image/bmp", true),
+    MP4("video/mp4", false),
+    QUICKTIME("video/quicktime", false);
+
+    // 판별에 필요한 최대 헤더 길이
+    public static final int SNIFF_LENGTH = 16;
+
+    private final String contentType;
+    private final boolean image;
+
+    MediaFormat(String contentType, boolean image) {
+        this.contentType = contentType;
+        this.image = image;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public boolean isImage() {
+        return image;
+    }
+
+    // 알 수 없는 형식이면 null
+    public static MediaFormat detect(byte[] header, int length) {
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return JPEG;
+        }
+        if (length >= 8 && (header[0] & 0xFF) == 0x89 && startsWith(header, 1, "PNG\r\n")) {
+            return PNG;
+        }
+        if (length >= 6 && (startsWith(header, 0, "GIF87a") || startsWith(header, 0, "GIF89a"))) {
+            return GIF;
+        }
+        if (length >= 12 && startsWith(header, 0, "RIFF") && startsWith(header, 8, "WEBP")) {
+            return WEBP;
+        }
+        if (length >= 12 && startsWith(header, 4, "ftyp")) {
+            String brand = new String(header, 8, 4, StandardCharsets.US_ASCII);
+            switch (brand) {
+                case "heic", "heix", "heim", "heis", "hevc", "hevx", "mif1", "msf1", "avif":
+                    return HEIC;
+                case "isom", "iso2", "iso4", "iso5", "iso6", "mp41", "mp42", "avc1", "M4V ", "3gp4", "3gp5", "3g2a":
+                    return MP4;
+                case "qt  ":
+                    return QUICKTIME;
+                default:
+                    return null;
+            }
+        }
+        if (length >= 4 && (startsWith(header, 0, "II*\0") || startsWith(header, 0, "MM\0*"))) {
+            return TIFF;
+        }
+        if (length >= 2 && startsWith(header, 0, "BM")) {
+            return BMP;
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, String ascii) {
+        if (data.length < offset + ascii.length()) {
+            return false;
+        }
+        for (int i = 0; i < ascii.length(); i++) {
+            if (data[offset + i] != (byte) ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
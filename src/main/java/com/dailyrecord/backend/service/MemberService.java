@@ -1,46 +1,54 @@
 package com.dailyrecord.backend.service;
 
+import com.dailyrecord.backend.dto.LoginResponse;
 import com.dailyrecord.backend.model.Members;
 import com.dailyrecord.backend.repository.MemberRepository;
-import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import com.dailyrecord.backend.security.JwtTokenProvider;
+import com.dailyrecord.backend.security.JwtTokenVerifier;
+import com.dailyrecord.backend.security.MemberDetailsCache;
+import com.dailyrecord.backend.security.MemberPrincipal;
+import com.dailyrecord.backend.security.PasswordHashingService;
+import com.dailyrecord.backend.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.Date;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class MemberService {
 
     private static final Logger logger = LoggerFactory.getLogger(MemberService.class);
-    private static final long TOKEN_EXPIRATION_MS = 86400000L; // 24시간
 
     @Autowired
     private MemberRepository memberRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
-    @Value("${jwt.secret.key}")
-    private String secretKey;
+    @Autowired
+    private JwtTokenVerifier jwtTokenVerifier;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private MemberDetailsCache memberDetailsCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
-    // JWT 토큰 생성
+    // JWT 액세스 토큰 생성
     public String generateToken(Members members) {
         logger.info("Generating JWT token for user: {}", members.getEmail());
-        return Jwts.builder()
-                .setSubject(members.getEmail())
-                .claim("username", members.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + TOKEN_EXPIRATION_MS))
-                .signWith(SignatureAlgorithm.HS512, secretKey)
-                .compact();
+        return jwtTokenProvider.generateAccessToken(members);
     }
 
     // JWT 토큰의 Bearer 접두어 제거
@@ -51,27 +59,23 @@ public class MemberService {
         return token.substring(7); // "Bearer " 이후의 토큰 부분만 추출
     }
 
-    // JWT 토큰 검증
-    private boolean validateToken(String token) {
+    // JWT 토큰 검증 후 Claims 반환 (서명 검증 결과는 JwtTokenVerifier 가 캐시, 폐기된 토큰은 null)
+    private Claims resolveClaims(String token) {
         try {
-            String pureToken = extractPureToken(token);
-            Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(pureToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
+            return jwtTokenProvider.resolveClaims(extractPureToken(token));
+        } catch (IllegalArgumentException e) {
             logger.error("JWT validation error: {}", e.getMessage());
-            return false;
+            return null;
         }
     }
 
     // JWT 토큰에서 이메일 추출
     public String getEmailFromToken(String token) {
-        String pureToken = extractPureToken(token);
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(pureToken)
-                .getBody()
-                .getSubject();
+        Claims claims = jwtTokenProvider.resolveClaims(extractPureToken(token));
+        if (claims == null) {
+            throw new IllegalArgumentException("Invalid JWT token");
+        }
+        return claims.getSubject();
     }
     public Optional<Members> findMemberByUsername(String username) {
         return memberRepository.findByUsername(username);
@@ -80,43 +84,101 @@ public class MemberService {
     public Optional<Members> findMemberByEmail(String email) {
         return memberRepository.findByEmail(email);
     }
-    // 회원 등록
-    public Members registerMember(Members members) {
+    // 로그아웃: 현재 액세스 토큰과 리프레시 토큰 폐기
+    public void logout(String token, String refreshToken) {
+        Claims claims = token != null ? jwtTokenVerifier.verify(token) : null;
+        if (claims != null) {
+            tokenRevocationService.revokeToken(claims);
+            jwtTokenVerifier.evict(token);
+        }
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
+
+    public long getAccessTokenMaxAgeSeconds() {
+        return jwtTokenProvider.getAccessTokenExpirationMs() / 1000;
+    }
+
+    public long getRefreshTokenMaxAgeSeconds() {
+        return refreshTokenService.getRefreshTokenExpirationMs() / 1000;
+    }
+
+    // 리프레시 토큰으로 새 토큰 발급
+    public LoginResponse refresh(String refreshToken) {
+        LoginResponse response = refreshTokenService.rotate(refreshToken);
+        logger.info("Access token refreshed");
+        return response;
+    }
+
+    // 회원 등록 (비밀번호 해시는 전용 스레드 풀에서 수행)
+    public CompletableFuture<Members> registerMember(Members members) {
         logger.info("Registering new member with email: {}", members.getEmail());
-        String encodedPassword = passwordEncoder.encode(members.getPassword());
-        members.setPassword(encodedPassword);
-        return memberRepository.save(members);
+        return passwordHashingService.encode(members.getPassword()).thenApply(encodedPassword -> {
+            members.setPassword(encodedPassword);
+            return memberRepository.save(members);
+        });
     }
 
-    // 로그인
-    public String login(String email, String password) {
+    // 로그인 (비밀번호 검증은 전용 스레드 풀에서 수행)
+    public CompletableFuture<LoginResponse> login(String email, String password) {
         logger.info("Attempting login for user: {}", email);
         Optional<Members> optionalMember = memberRepository.findByEmail(email);
-        if (optionalMember.isPresent()) {
-            Members members = optionalMember.get();
-            if (passwordEncoder.matches(password, members.getPassword())) {
-                logger.info("Login successful for user: {}", email);
-                return generateToken(members);
-            } else {
+        if (optionalMember.isEmpty()) {
+            logger.warn("User not found with email: {}", email);
+            return CompletableFuture.failedFuture(new IllegalArgumentException("User not found with email: " + email));
+        }
+
+        Members members = optionalMember.get();
+        return passwordHashingService.matches(password, members.getPassword()).thenApply(matches -> {
+            if (!matches) {
                 logger.warn("Invalid password for user: {}", email);
                 throw new IllegalArgumentException("Invalid password");
             }
-        } else {
-            logger.warn("User not found with email: {}", email);
-            throw new IllegalArgumentException("User not found with email: " + email);
+            logger.info("Login successful for user: {}", email);
+            rehashIfNeeded(members, password);
+            return new LoginResponse(generateToken(members), refreshTokenService.issue(members));
+        });
+    }
+
+    // BCrypt cost 설정이 바뀐 경우 로그인 성공 시점에 새 cost 로 다시 해시.
+    // 로그인 때 읽은 엔티티를 save 하면 그 사이의 회원 정보/비밀번호 변경을 덮어쓰므로 해시 컬럼만 조건부로 갱신한다
+    private void rehashIfNeeded(Members members, String rawPassword) {
+        String oldHash = members.getPassword();
+        if (!passwordHashingService.needsRehash(oldHash)) {
+            return;
         }
+        passwordHashingService.encode(rawPassword).thenAccept(encodedPassword -> {
+            if (memberRepository.updatePasswordHash(members.getId(), oldHash, encodedPassword) == 0) {
+                logger.info("Password changed before rehash, skipped for user: {}", members.getEmail());
+                return;
+            }
+            memberDetailsCache.invalidate(members.getEmail());
+            logger.info("Rehashed password for user: {}", members.getEmail());
+        }).exceptionally(e -> {
+            logger.warn("Password rehash skipped for user {}: {}", members.getEmail(), e.getMessage());
+            return null;
+        });
     }
     // 이메일로 사용자 검색
     public Members findByEmail(String email) {
         return memberRepository.findByEmail(email).orElse(null);
     }
+
+    // 이메일로 회원 요약 정보 조회 (인증 캐시 사용)
+    public MemberPrincipal findPrincipalByEmail(String email) {
+        return memberDetailsCache.get(email, key -> memberRepository.findByEmail(key)
+                .map(MemberPrincipal::from)
+                .orElse(null));
+    }
     // 회원 정보 수정
     public Members updateMember(Long id, Members updatedMembers, String token) {
-        if (!validateToken(token)) {
+        Claims claims = resolveClaims(token);
+        if (claims == null) {
             throw new IllegalArgumentException("Invalid JWT token");
         }
 
-        String email = getEmailFromToken(token);
+        String email = claims.getSubject();
 
         return memberRepository.findById(id).map(member -> {
             if (!member.getEmail().equals(email)) {
@@ -128,11 +190,19 @@ public class MemberService {
             if (updatedMembers.getEmail() != null && !updatedMembers.getEmail().isEmpty()) {
                 member.setEmail(updatedMembers.getEmail());
             }
-            if (updatedMembers.getPassword() != null && !updatedMembers.getPassword().isEmpty()) {
-                member.setPassword(passwordEncoder.encode(updatedMembers.getPassword()));
+            boolean passwordChanged = updatedMembers.getPassword() != null && !updatedMembers.getPassword().isEmpty();
+            if (passwordChanged) {
+                member.setPassword(passwordHashingService.encodeAndWait(updatedMembers.getPassword()));
             }
             member.setUpdatedAt(LocalDateTime.now());
-            return memberRepository.save(member);
+            Members saved = memberRepository.save(member);
+            memberDetailsCache.invalidate(email);
+            memberDetailsCache.invalidate(saved.getEmail());
+            if (passwordChanged) {
+                tokenRevocationService.revokeMember(saved.getId()); // 기존에 발급된 토큰 폐기
+                refreshTokenService.revokeAll(saved.getId());
+            }
+            return saved;
         }).orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
     }
 
@@ -142,6 +212,9 @@ public class MemberService {
             member.setIsActive(false);
             member.setUpdatedAt(LocalDateTime.now());
             memberRepository.save(member);
+            memberDetailsCache.invalidate(member.getEmail());
+            tokenRevocationService.revokeMember(member.getId());
+            refreshTokenService.revokeAll(member.getId());
             return true;
         }).orElse(false);
     }
@@ -152,6 +225,7 @@ public class MemberService {
             member.setIsActive(true);
             member.setUpdatedAt(LocalDateTime.now());
             memberRepository.save(member);
+            memberDetailsCache.invalidate(member.getEmail());
             return true;
         }).orElse(false);
     }
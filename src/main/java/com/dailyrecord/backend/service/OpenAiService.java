@@ -1,42 +1,164 @@
 package com.dailyrecord.backend.service;
 
+import com.dailyrecord.backend.client.OpenAiClient;
+import com.dailyrecord.backend.dto.AnalysisRequest;
 import com.dailyrecord.backend.model.AiGenerateData;
 import com.dailyrecord.backend.model.Photos;
+import com.dailyrecord.backend.model.Posts;
 import com.dailyrecord.backend.repository.AiGenerateDataRepository;
 import com.dailyrecord.backend.repository.PhotosRepository;
+import com.dailyrecord.backend.service.VisionImageService.VisionImage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 @Service
 public class OpenAiService {
 
-    @Value("${openai.api.key}")
-    private String apiKey;
+    private static final String MODEL = "gpt-4o-mini-2024-07-18";
+    private static final String SYSTEM_MESSAGE = "You are an AI assistant specializing in photo metadata analysis.";
 
-    @Value("${openai.api.endpoint}")
-    private String endpoint;
+    private static final Pattern UUID_PREFIX = Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}_");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
 
-    private final RestTemplate restTemplate;
+    private final OpenAiClient openAiClient;
+    private final PromptCacheService promptCacheService;
+    private final VisionImageService visionImageService;
     private final PhotosRepository photosRepository;
     private final AiGenerateDataRepository aiGenerateDataRepository;
+    private final ObjectMapper objectMapper;
+    private final double charsPerToken;
+    private final int expectedCompletionTokens;
 
     @Autowired
-    public OpenAiService(RestTemplate restTemplate,PhotosRepository photosRepository,AiGenerateDataRepository aiGenerateDataRepository) {
-        this.restTemplate = restTemplate;
+    public OpenAiService(OpenAiClient openAiClient, PromptCacheService promptCacheService, VisionImageService visionImageService, PhotosRepository photosRepository,AiGenerateDataRepository aiGenerateDataRepository, ObjectMapper objectMapper,
+                         @Value("${openai.client.rate-limit.chars-per-token:1.5}") double charsPerToken,
+                         @Value("${openai.client.rate-limit.expected-completion-tokens:1000}") int expectedCompletionTokens) {
+        this.openAiClient = openAiClient;
+        this.promptCacheService = promptCacheService;
+        this.visionImageService = visionImageService;
         this.photosRepository = photosRepository;
         this.aiGenerateDataRepository = aiGenerateDataRepository;
+        this.objectMapper = objectMapper;
+        this.charsPerToken = charsPerToken;
+        this.expectedCompletionTokens = expectedCompletionTokens;
     }
 
-    public String analyzePhoto(Photos photo,String atmosphereofwriting, String place, String age, String companions, String mbti, String situation) {
-        String prompt = String.format(
+    public String analyzePhoto(Photos photo, AnalysisRequest request) {
+        String prompt = buildPrompt(photo, request);
+        VisionImage image = visionImage(photo, request);
+        String cacheKey = cacheKey(prompt, image);
+        String cached = cachedResponse(cacheKey, request);
+        if (cached != null) {
+            return cached;
+        }
+        String story = callOpenAiApi(memberId(photo), prompt, image);
+        promptCacheService.put(cacheKey, MODEL, story);
+        return story;
+    }
+
+    // 스트리밍 응답으로 분석: 생성되는 조각마다 onToken 을 호출하고, 전체 글을 반환 (캐시 적중 시 한 번에 전달)
+    public String analyzePhotoStreaming(Photos photo, AnalysisRequest request, Consumer<String> onToken) {
+        String prompt = buildPrompt(photo, request);
+        VisionImage image = visionImage(photo, request);
+        String cacheKey = cacheKey(prompt, image);
+        String cached = cachedResponse(cacheKey, request);
+        if (cached != null) {
+            onToken.accept(cached);
+            return cached;
+        }
+        String story = streamOpenAiApi(memberId(photo), prompt, image, onToken);
+        promptCacheService.put(cacheKey, MODEL, story);
+        return story;
+    }
+
+    // 게시글의 사진별 스토리를 하나의 글로 묶음 (사진 순서대로 전달)
+    public String generatePostStory(Posts post, List<String> photoStories, AnalysisRequest request) {
+        String prompt = buildPostPrompt(post, photoStories, request);
+        String cacheKey = cacheKey(prompt, null);
+        String cached = cachedResponse(cacheKey, request);
+        if (cached != null) {
+            return cached;
+        }
+        Long memberId = post.getMember() != null ? post.getMember().getId() : null;
+        String story = callOpenAiApi(memberId, prompt, null);
+        promptCacheService.put(cacheKey, MODEL, story);
+        return story;
+    }
+
+    private String buildPostPrompt(Posts post, List<String> photoStories, AnalysisRequest request) {
+        StringBuilder stories = new StringBuilder();
+        for (int i = 0; i < photoStories.size(); i++) {
+            stories.append("[사진 ").append(i + 1).append("]\n").append(photoStories.get(i).trim()).append("\n\n");
+        }
+        return String.format(
+                "당신은 내 블로그 글을 대신 써주는 사람입니다. " +
+                        "아래는 한 게시글에 올린 사진들에 대해 각각 작성한 글입니다. 이 내용을 바탕으로 게시글 전체를 하나의 자연스러운 블로그 글로 작성해주세요.\n\n" +
+                        "- 게시글 제목: %s\n" +
+                        "- 글의 분위기: %s\n" +
+                        "- 대략적인 위치: %s\n\n" +
+                        "%s" +
+                        "사진 순서의 흐름을 살리고, 각 글에 없는 거짓 정보는 넣지 마세요. 너무 딱딱하지 않은 어투로 작성하세요.",
+                normalize(post.getTitle()),
+                normalize(request.getAtmosphereofwriting()),
+                normalize(request.getPlace()),
+                stories
+        );
+    }
+
+    private VisionImage visionImage(Photos photo, AnalysisRequest request) {
+        return request.isIncludeImage() ? visionImageService.getImage(photo) : null;
+    }
+
+    // 이미지를 함께 보내면 같은 프롬프트라도 다른 응답이므로 이미지 식별자를 키에 포함
+    private static String cacheKey(String prompt, VisionImage image) {
+        String input = image != null ? prompt + "\n[image:" + image.key() + "]" : prompt;
+        return PromptCacheService.key(MODEL, SYSTEM_MESSAGE, input);
+    }
+
+    private String cachedResponse(String cacheKey, AnalysisRequest request) {
+        if (request.isNoCache()) {
+            promptCacheService.recordBypass();
+            return null;
+        }
+        return promptCacheService.get(cacheKey);
+    }
+
+    // 같은 입력이면 같은 프롬프트가 되도록 정규화:
+    // 저장용 파일 이름의 UUID 접두사 제거, 좌표는 소수점 4자리(약 11m), 입력값 공백 정리
+    private String buildPrompt(Photos photo, AnalysisRequest request) {
+        return buildPrompt(photo, normalize(request.getAtmosphereofwriting()), normalize(request.getPlace()),
+                normalize(request.getAge()), normalize(request.getCompanions()), normalize(request.getMbti()),
+                normalize(request.getSituation()));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : WHITESPACE.matcher(value.trim()).replaceAll(" ");
+    }
+
+    private static String displayFileName(String fileName) {
+        return fileName == null ? "" : UUID_PREFIX.matcher(fileName).replaceFirst("");
+    }
+
+    private static String coordinate(Double value) {
+        return value != null ? String.format(Locale.ROOT, "%.4f", value) : "없음";
+    }
+
+    private String buildPrompt(Photos photo, String atmosphereofwriting, String place, String age, String companions, String mbti, String situation) {
+        return String.format(
                 "당신은 내 블로그 글을 대신 써주는 사람입니다. " +
                         "다음 사진에 대해 블로그 글을 작성해주세요. 아래 정보를 참고해 작성하세요. 내 블로그에 올릴 글을 사진을 보고 대신 작성해주세요.\n\n" +
                         "- 글의 분위기: %s\n" +
@@ -52,45 +174,51 @@ public class OpenAiService {
                         "글은 매끄럽고 독자에게 흥미를 줄 수 있도록 작성하세요. 너무 딱딱하지 않은 어투로 작성하며, 자연스러운 문장을 사용하세요.",
                 atmosphereofwriting,
                 place,
-                photo.getFileName(),
-                photo.getLatitude() != null ? photo.getLatitude() : "없음",
-                photo.getLongitude() != null ? photo.getLongitude() : "없음",
+                displayFileName(photo.getFileName()),
+                coordinate(photo.getLatitude()),
+                coordinate(photo.getLongitude()),
                 age,
                 companions,
                 mbti,
                 situation
         );
+    }
 
-        return callOpenAiApi(prompt);
+    private static Long memberId(Photos photo) {
+        return photo.getMember() != null ? photo.getMember().getId() : null;
     }
 
-    private String callOpenAiApi(String prompt) {
-        String url = endpoint;
+    // 한도 계산용 예상 토큰 수: 프롬프트 길이(한글은 글자당 토큰이 많음) + 예상 응답 길이
+    private int estimateTokens(String prompt, VisionImage image) {
+        int promptChars = SYSTEM_MESSAGE.length() + prompt.length();
+        int imageTokens = image != null ? image.estimatedTokens() : 0;
+        return (int) Math.ceil(promptChars / charsPerToken) + imageTokens + expectedCompletionTokens;
+    }
 
-        // 요청 본문 생성
+    private Map<String, Object> buildRequestBody(String prompt, VisionImage image) {
+        // 이미지가 있으면 사용자 메시지를 텍스트 + image_url 배열로 구성
+        Object userContent = image == null ? prompt : List.of(
+                Map.of("type", "text", "text", prompt),
+                Map.of("type", "image_url", "image_url", Map.of("url", image.dataUrl(), "detail", image.detail()))
+        );
         Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("model", "gpt-4o-mini-2024-07-18");
+        requestBody.put("model", MODEL);
         requestBody.put("messages", List.of(
-                Map.of("role", "system", "content", "You are an AI assistant specializing in photo metadata analysis."),
-                Map.of("role", "user", "content", prompt)
+                Map.of("role", "system", "content", SYSTEM_MESSAGE),
+                Map.of("role", "user", "content", userContent)
         ));
+        return requestBody;
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(apiKey);
-
-        HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(requestBody, headers);
+    @SuppressWarnings("unchecked")
+    private String callOpenAiApi(Long memberId, String prompt, VisionImage image) {
+        // 요청 본문 생성
+        Map<String, Object> requestBody = buildRequestBody(prompt, image);
 
-        // OpenAI API 요청
-        ResponseEntity<Map> response = restTemplate.exchange(
-                url,
-                HttpMethod.POST,
-                requestEntity,
-                Map.class
-        );
+        // OpenAI API 요청 (분당 한도/타임아웃/재시도/서킷 브레이커는 OpenAiClient 에서 처리)
+        Map<String, Object> responseBody = openAiClient.chatCompletion(requestBody, memberId, estimateTokens(prompt, image));
 
         // 응답 데이터 추출
-        Map<String, Object> responseBody = response.getBody();
         if (responseBody != null && responseBody.containsKey("choices")) {
             List<Map<String, Object>> choices = (List<Map<String, Object>>) responseBody.get("choices");
             return (String) ((Map<String, Object>) choices.get(0).get("message")).get("content");
@@ -98,12 +226,54 @@ public class OpenAiService {
 
         throw new RuntimeException("OpenAI API 응답 형식이 올바르지 않습니다.");
     }
+
+    // stream=true 요청: 응답은 "data: {json}" 줄의 연속이며 "data: [DONE]" 으로 끝난다
+    private String streamOpenAiApi(Long memberId, String prompt, VisionImage image, Consumer<String> onToken) {
+        Map<String, Object> requestBody = buildRequestBody(prompt, image);
+        requestBody.put("stream", true);
+        // 마지막 조각에 usage 를 포함시켜 한도 보정에 사용
+        requestBody.put("stream_options", Map.of("include_usage", true));
+
+        OpenAiClient.StreamReader<String> streamReader = (response, usage) -> {
+            StringBuilder story = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.startsWith("data:")) {
+                        continue;
+                    }
+                    String data = line.substring(5).trim();
+                    if ("[DONE]".equals(data)) {
+                        break;
+                    }
+                    JsonNode chunk = objectMapper.readTree(data);
+                    JsonNode totalTokens = chunk.path("usage").path("total_tokens");
+                    if (totalTokens.isNumber()) {
+                        usage.accept(totalTokens.asLong());
+                    }
+                    JsonNode delta = chunk.path("choices").path(0).path("delta").path("content");
+                    if (delta.isTextual() && !delta.asText().isEmpty()) {
+                        story.append(delta.asText());
+                        onToken.accept(delta.asText());
+                    }
+                }
+            }
+            return story.toString();
+        };
+
+        String story = openAiClient.streamChatCompletion(requestBody, memberId, estimateTokens(prompt, image), streamReader);
+        if (story == null || story.isEmpty()) {
+            throw new RuntimeException("OpenAI API 응답 형식이 올바르지 않습니다.");
+        }
+        return story;
+    }
     public boolean updateAIStory(Long photoId, String story) {
         Optional<Photos> photoOptional = photosRepository.findById(photoId);
 
         if (photoOptional.isPresent()) {
             Photos photo = photoOptional.get();
-            Optional<AiGenerateData> aiDataOptional = aiGenerateDataRepository.findByPhoto(photo);
+            // 분석 중(PENDING)인 선점 행은 수정하지 않음
+            Optional<AiGenerateData> aiDataOptional = aiGenerateDataRepository.findByPhotoIdAndStatus(photo.getId(), AiGenerateData.STATUS_COMPLETED);
 
             if (aiDataOptional.isPresent()) {
                 AiGenerateData aiData = aiDataOptional.get();
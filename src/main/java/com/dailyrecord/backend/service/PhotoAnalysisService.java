@@ -0,0 +1,340 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.dto.AnalysisRequest;
+import com.dailyrecord.backend.model.AiGenerateData;
+import com.dailyrecord.backend.model.Photos;
+import com.dailyrecord.backend.repository.AiGenerateDataRepository;
+import com.dailyrecord.backend.stats.StatsSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// 사진 분석(캡션/스토리 생성) 후 AiGenerateData 저장. 동기 요청과 비동기 작업이 함께 사용한다.
+// 같은 사진의 중복 분석은 서버 안에서는 진행 중인 요청을 공유하고, 서버 간에는 DB 선점(PENDING 행)으로 막는다.
+@Service
+public class PhotoAnalysisService implements StatsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoAnalysisService.class);
+
+    private static final String ALREADY_ANALYZED = "이미 분석 데이터가 존재합니다.";
+    private static final String ANALYSIS_IN_PROGRESS = "다른 요청에서 분석 중입니다.";
+
+    private final OpenAiService openAiService;
+    private final PhotoDuplicateService photoDuplicateService;
+    private final AiGenerateDataRepository aiGenerateDataRepository;
+    // 이 시간이 지난 PENDING 선점은 죽은 요청으로 보고 이어받는다. 살아 있는 분석을 빼앗지 않도록 OpenAI 호출의
+    // 최악 소요 시간보다 길어야 한다: 시도 3회 x (스트리밍 읽기 300초 + 요청 한도 대기 60초 + 동시 호출 대기 2초)
+    // + 재시도 대기 약 16초 = 약 1100초. 기본값은 여유를 두어 25분
+    private final Duration claimTimeout;
+
+    private final Map<Long, CompletableFuture<AnalysisResult>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder claimConflicts = new LongAdder();
+    private final LongAdder staleClaimsTakenOver = new LongAdder();
+    private final LongAdder lostClaims = new LongAdder();
+
+    public PhotoAnalysisService(OpenAiService openAiService, PhotoDuplicateService photoDuplicateService,
+                                AiGenerateDataRepository aiGenerateDataRepository,
+                                @Value("${ai.analysis.claim-timeout-ms:1500000}") long claimTimeoutMs) {
+        this.openAiService = openAiService;
+        this.photoDuplicateService = photoDuplicateService;
+        this.aiGenerateDataRepository = aiGenerateDataRepository;
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMs);
+    }
+
+    public boolean isAnalyzed(Long photoId) {
+        return aiGenerateDataRepository.existsByPhotoIdAndStatus(photoId, AiGenerateData.STATUS_COMPLETED);
+    }
+
+    public AnalysisResult analyze(Photos photo, AnalysisRequest request) {
+        return analyze(photo, request, null);
+    }
+
+    // 생성되는 글 조각을 onToken 으로 전달하며 분석 (완료 후 저장은 동일)
+    public AnalysisResult analyzeStreaming(Photos photo, AnalysisRequest request, Consumer<String> onToken) {
+        return analyze(photo, request, onToken);
+    }
+
+    // 같은 사진에 대한 동시 요청은 먼저 시작한 분석 결과를 함께 받는다
+    private AnalysisResult analyze(Photos photo, AnalysisRequest request, Consumer<String> onToken) {
+        Long photoId = photo.getId();
+        CompletableFuture<AnalysisResult> created = new CompletableFuture<>();
+        CompletableFuture<AnalysisResult> existing = inFlight.putIfAbsent(photoId, created);
+        if (existing != null) {
+            coalesced.increment();
+            AnalysisResult result = join(existing);
+            if (onToken != null) {
+                onToken.accept(result.story());
+            }
+            return result;
+        }
+
+        try {
+            AnalysisResult result = claimAndAnalyze(photo, request, onToken);
+            created.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(photoId, created);
+        }
+    }
+
+    private AnalysisResult claimAndAnalyze(Photos photo, AnalysisRequest request, Consumer<String> onToken) {
+        // DB 에 PENDING 행을 먼저 넣어 분석을 선점 (photo_id 유니크 제약으로 다른 서버의 중복 호출도 막음)
+        AiGenerateData aiData = claim(photo);
+        try {
+            AnalysisResult result = generate(photo, request, onToken);
+
+            // 데이터 저장 (선점한 행을 완료 상태로). 그 사이 선점을 빼앗겼으면 결과를 버림
+            if (!completeClaim(aiData, result)) {
+                throw new IllegalStateException(ANALYSIS_IN_PROGRESS);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            aiGenerateDataRepository.releaseClaim(photo.getId(), aiData.getClaimToken());
+            throw e;
+        }
+    }
+
+    // 게시글 단위 일괄 분석: 선점은 사진마다 하고, OpenAI 호출은 executor 로 병렬 실행한 뒤
+    // 성공한 결과를 사진마다 선점 소유를 확인하며 저장한다. 사진별 결과를 요청 순서대로 반환
+    public List<BatchOutcome> analyzeBatch(List<Photos> photos, AnalysisRequest request, Executor executor) {
+        Map<Long, CompletableFuture<AnalysisResult>> registered = new LinkedHashMap<>();
+        Map<Long, AiGenerateData> claims = new LinkedHashMap<>();
+        Map<Long, BatchOutcome> outcomes = new LinkedHashMap<>();
+        Map<Long, CompletableFuture<AnalysisResult>> tasks = new LinkedHashMap<>();
+        Map<Long, AnalysisResult> results = new LinkedHashMap<>();
+        Map<Long, RuntimeException> errors = new HashMap<>();
+        Set<Long> saved = new HashSet<>();
+
+        try {
+            for (Photos photo : photos) {
+                Long photoId = photo.getId();
+                CompletableFuture<AnalysisResult> created = new CompletableFuture<>();
+                if (inFlight.putIfAbsent(photoId, created) != null) {
+                    coalesced.increment();
+                    outcomes.put(photoId, BatchOutcome.inProgress(photoId));
+                    continue;
+                }
+                registered.put(photoId, created);
+                try {
+                    claims.put(photoId, claim(photo));
+                } catch (IllegalStateException e) {
+                    outcomes.put(photoId, ALREADY_ANALYZED.equals(e.getMessage())
+                            ? BatchOutcome.skipped(photoId) : BatchOutcome.inProgress(photoId));
+                    continue;
+                }
+                try {
+                    tasks.put(photoId, CompletableFuture.supplyAsync(() -> generate(photo, request, null), executor));
+                } catch (RejectedExecutionException e) {
+                    tasks.put(photoId, CompletableFuture.failedFuture(
+                            new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "분석 대기열이 가득 찼습니다.")));
+                }
+            }
+
+            // 모든 호출이 끝날 때까지 대기 (전체 시간은 가장 느린 호출 정도)
+            for (Map.Entry<Long, CompletableFuture<AnalysisResult>> task : tasks.entrySet()) {
+                try {
+                    results.put(task.getKey(), join(task.getValue()));
+                } catch (RuntimeException e) {
+                    errors.put(task.getKey(), e);
+                }
+            }
+
+            for (Map.Entry<Long, AnalysisResult> entry : results.entrySet()) {
+                Long photoId = entry.getKey();
+                try {
+                    if (completeClaim(claims.get(photoId), entry.getValue())) {
+                        saved.add(photoId);
+                    } else {
+                        outcomes.put(photoId, BatchOutcome.inProgress(photoId));
+                    }
+                } catch (RuntimeException e) {
+                    errors.put(photoId, e);
+                }
+            }
+        } finally {
+            // 어떤 예외가 나더라도 등록한 future 는 모두 완료하고, 저장하지 못한 선점은 해제한다
+            // (남아 있으면 같은 사진의 이후 분석 요청이 join 에서 멈춤)
+            for (Map.Entry<Long, CompletableFuture<AnalysisResult>> entry : registered.entrySet()) {
+                Long photoId = entry.getKey();
+                CompletableFuture<AnalysisResult> future = entry.getValue();
+                AnalysisResult result = saved.contains(photoId) ? results.get(photoId) : null;
+                if (result != null) {
+                    outcomes.put(photoId, BatchOutcome.completed(photoId, result));
+                    future.complete(result);
+                } else {
+                    AiGenerateData claimed = claims.get(photoId);
+                    if (claimed != null) {
+                        release(claimed);
+                    }
+                    RuntimeException error = errors.get(photoId);
+                    if (error == null) {
+                        BatchOutcome outcome = outcomes.get(photoId);
+                        error = new IllegalStateException(outcome != null ? outcome.error() : "일괄 분석이 중단되었습니다.");
+                    }
+                    if (!outcomes.containsKey(photoId)) {
+                        outcomes.put(photoId, BatchOutcome.failed(photoId, String.valueOf(error.getMessage())));
+                    }
+                    future.completeExceptionally(error);
+                }
+                inFlight.remove(photoId, future);
+            }
+        }
+
+        return photos.stream().map(photo -> outcomes.get(photo.getId())).toList();
+    }
+
+    // 선점 해제 실패는 기록만 하고 계속 (claim-timeout 이 지나면 다른 요청이 이어받음)
+    private void release(AiGenerateData claimed) {
+        try {
+            aiGenerateDataRepository.releaseClaim(claimed.getPhoto().getId(), claimed.getClaimToken());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to release analysis claim for photo {}: {}", claimed.getPhoto().getId(), e.getMessage());
+        }
+    }
+
+    // 선점 후 실제 글 생성 (저장은 호출한 쪽에서)
+    private AnalysisResult generate(Photos photo, AnalysisRequest request, Consumer<String> onToken) {
+        // Caption 데이터 생성
+        String captionContent = request.toCaption();
+
+        // reuseDuplicate=true 이면 같은 정보로 분석된 비슷한 사진의 결과를 재사용 (OpenAI 호출 생략)
+        if (request.isReuseDuplicate()) {
+            Optional<AiGenerateData> reusable = photoDuplicateService.findReusableAnalysis(photo, captionContent);
+            if (reusable.isPresent()) {
+                String analysis = reusable.get().getStory();
+                if (onToken != null) {
+                    onToken.accept(analysis);
+                }
+                return new AnalysisResult(analysis, captionContent, reusable.get().getPhoto().getId());
+            }
+        }
+
+        // OpenAI API 호출 (추가 정보 포함)
+        String analysis = onToken == null
+                ? openAiService.analyzePhoto(photo, request)
+                : openAiService.analyzePhotoStreaming(photo, request, onToken);
+        return new AnalysisResult(analysis, captionContent, null);
+    }
+
+    // 선점한 행을 완료 상태로 (Caption 포함). 선점을 이어받은 다른 요청이 있으면 false
+    private boolean completeClaim(AiGenerateData claimed, AnalysisResult result) {
+        int updated = aiGenerateDataRepository.completeClaim(claimed.getPhoto().getId(), claimed.getClaimToken(),
+                result.story(), result.caption(), LocalDateTime.now());
+        if (updated == 0) {
+            lostClaims.increment();
+            logger.warn("Analysis claim for photo {} was taken over, discarding result", claimed.getPhoto().getId());
+            return false;
+        }
+        return true;
+    }
+
+    private AiGenerateData claim(Photos photo) {
+        AiGenerateData pending = new AiGenerateData();
+        pending.setPhoto(photo);
+        pending.setStatus(AiGenerateData.STATUS_PENDING);
+        pending.setClaimedAt(LocalDateTime.now());
+        pending.setClaimToken(UUID.randomUUID().toString());
+        try {
+            return aiGenerateDataRepository.saveAndFlush(pending);
+        } catch (DataIntegrityViolationException e) {
+            // 이미 행이 있음: 완료되었거나, 다른 요청이 분석 중이거나, 분석 중 서버가 죽어 오래된 선점이 남은 경우
+            AiGenerateData existing = aiGenerateDataRepository.findByPhotoId(photo.getId())
+                    .orElseThrow(() -> new IllegalStateException(ANALYSIS_IN_PROGRESS));
+            if (AiGenerateData.STATUS_COMPLETED.equals(existing.getStatus())) {
+                throw new IllegalStateException(ALREADY_ANALYZED);
+            }
+            LocalDateTime now = LocalDateTime.now();
+            String claimToken = UUID.randomUUID().toString();
+            if (aiGenerateDataRepository.takeOverStaleClaim(photo.getId(), now, now.minus(claimTimeout), claimToken) == 1) {
+                staleClaimsTakenOver.increment();
+                existing.setClaimedAt(now);
+                existing.setClaimToken(claimToken);
+                return existing;
+            }
+            claimConflicts.increment();
+            throw new IllegalStateException(ANALYSIS_IN_PROGRESS);
+        }
+    }
+
+    private static AnalysisResult join(CompletableFuture<AnalysisResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String getStatsName() {
+        return "photoAnalysis";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight.size());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("claimConflicts", claimConflicts.sum());
+        stats.put("staleClaimsTakenOver", staleClaimsTakenOver.sum());
+        stats.put("lostClaims", lostClaims.sum());
+        return stats;
+    }
+
+    public record AnalysisResult(String story, String caption, Long reusedFromPhotoId) {
+    }
+
+    // 일괄 분석의 사진별 결과. status: COMPLETED, SKIPPED(이미 분석됨), IN_PROGRESS(다른 요청이 분석 중), FAILED
+    public record BatchOutcome(Long photoId, String status, AnalysisResult result, String error) {
+
+        public static final String COMPLETED = "COMPLETED";
+        public static final String SKIPPED = "SKIPPED";
+        public static final String IN_PROGRESS = "IN_PROGRESS";
+        public static final String FAILED = "FAILED";
+
+        static BatchOutcome completed(Long photoId, AnalysisResult result) {
+            return new BatchOutcome(photoId, COMPLETED, result, null);
+        }
+
+        public static BatchOutcome skipped(Long photoId) {
+            return new BatchOutcome(photoId, SKIPPED, null, ALREADY_ANALYZED);
+        }
+
+        static BatchOutcome inProgress(Long photoId) {
+            return new BatchOutcome(photoId, IN_PROGRESS, null, ANALYSIS_IN_PROGRESS);
+        }
+
+        static BatchOutcome failed(Long photoId, String error) {
+            return new BatchOutcome(photoId, FAILED, null, error);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.cache.TtlCache;
+import com.dailyrecord.backend.dto.PhotoClusterResponse;
+import com.dailyrecord.backend.geo.GeoHash;
+import com.dailyrecord.backend.repository.GeoCellAggregate;
+import com.dailyrecord.backend.repository.PhotoGeoRepository;
+import com.dailyrecord.backend.stats.StatsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// 지도 마커 클러스터.
+// 줌 레벨에 맞는 길이의 지오해시 접두사로 회원 사진을 묶고, 셀 집계와 화면(viewport) 결과를 회원별로 캐시한다.
+// 사진이 추가되면 해당 셀 집계만 갱신하고 그 위치를 포함하는 화면 결과만 버린다. 삭제 시에는 회원 캐시 전체를 버린다.
+@Service
+public class PhotoClusterService implements StatsSource {
+
+    // 줌 레벨(0~20) -> 지오해시 길이
+    private static final int[] PRECISION_BY_ZOOM = {1, 1, 1, 2, 2, 2, 3, 3, 4, 4, 4, 5, 5, 6, 6, 6, 7, 7, 8, 8, 8};
+
+    private final PhotoGeoRepository photoGeoRepository;
+    private final int maxViewportsPerMember;
+    private final TtlCache<Long, MemberClusters> members;
+    private final Object membersLock = new Object();
+
+    private final LongAdder viewportHits = new LongAdder();
+    private final LongAdder viewportMisses = new LongAdder();
+    private final LongAdder cellLoads = new LongAdder();
+
+    public PhotoClusterService(PhotoGeoRepository photoGeoRepository,
+                               @Value("${photo.clusters.max-members:1000}") int maxMembers,
+                               @Value("${photo.clusters.max-viewports-per-member:32}") int maxViewportsPerMember,
+                               @Value("${photo.clusters.ttl-seconds:600}") long ttlSeconds) {
+        this.photoGeoRepository = photoGeoRepository;
+        this.maxViewportsPerMember = maxViewportsPerMember;
+        this.members = new TtlCache<>(maxMembers, ttlSeconds * 1000L);
+    }
+
+    public static int precisionForZoom(int zoom) {
+        return PRECISION_BY_ZOOM[Math.max(0, Math.min(zoom, PRECISION_BY_ZOOM.length - 1))];
+    }
+
+    // 화면 영역 안의 클러스터 (셀 중심이 아닌 실제 사진 중심으로 판정)
+    public List<PhotoClusterResponse> getClusters(Long memberId, double minLat, double minLon,
+                                                  double maxLat, double maxLon, int zoom) {
+        if (minLat > maxLat || minLon > maxLon || minLat < -90 || maxLat > 90 || minLon < -180 || maxLon > 180) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 영역입니다.");
+        }
+        int precision = precisionForZoom(zoom);
+
+        // 화면을 셀 격자에 맞춰 넓혀서 조금씩 움직인 화면도 같은 캐시 항목을 쓰도록 한다
+        double height = GeoHash.cellHeight(precision);
+        double width = GeoHash.cellWidth(precision);
+        Viewport viewport = new Viewport(precision,
+                Math.floor(minLat / height) * height, Math.floor(minLon / width) * width,
+                Math.ceil(maxLat / height) * height, Math.ceil(maxLon / width) * width);
+
+        MemberClusters clusters = clustersOf(memberId);
+        synchronized (clusters) {
+            List<PhotoClusterResponse> cached = clusters.viewports.get(viewport);
+            if (cached != null) {
+                viewportHits.increment();
+                return cached;
+            }
+            viewportMisses.increment();
+
+            LoadedCells loaded = clusters.cellsByPrecision.get(precision);
+            if (loaded == null) {
+                loaded = loadCells(memberId, precision);
+                clusters.cellsByPrecision.put(precision, loaded);
+            }
+
+            List<PhotoClusterResponse> result = new ArrayList<>();
+            for (Map.Entry<String, Cell> entry : loaded.cells.entrySet()) {
+                Cell cell = entry.getValue();
+                double latitude = cell.sumLatitude / cell.count;
+                double longitude = cell.sumLongitude / cell.count;
+                if (viewport.contains(latitude, longitude)) {
+                    result.add(new PhotoClusterResponse(entry.getKey(), cell.count, latitude, longitude, cell.latestPhotoId));
+                }
+            }
+            List<PhotoClusterResponse> immutable = List.copyOf(result);
+            clusters.viewports.put(viewport, immutable);
+            return immutable;
+        }
+    }
+
+    // 사진 추가: 읽어 둔 셀 집계를 갱신하고 위치를 포함하는 화면 결과만 버림.
+    // 집계가 포함한 최대 id 보다 큰 사진은 집계에 없었으므로 더한다. 그 이하의 id 는 (동시 INSERT 로 id 순서와 커밋 순서가
+    // 다를 수 있어) 집계에 들어 있는지 알 수 없으므로 그 길이의 집계를 버리고 다음 조회 때 다시 읽는다.
+    public void onPhotoAdded(Long memberId, Long photoId, Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return;
+        }
+        MemberClusters clusters = members.get(memberId);
+        if (clusters == null) {
+            return;
+        }
+        String geohash = GeoHash.encode(latitude, longitude, GeoHash.STORED_PRECISION);
+        synchronized (clusters) {
+            Iterator<Map.Entry<Integer, LoadedCells>> iterator = clusters.cellsByPrecision.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Integer, LoadedCells> entry = iterator.next();
+                LoadedCells loaded = entry.getValue();
+                if (photoId <= loaded.maxPhotoId) {
+                    int precision = entry.getKey();
+                    iterator.remove();
+                    clusters.viewports.keySet().removeIf(viewport -> viewport.precision() == precision);
+                    continue;
+                }
+                String prefix = geohash.substring(0, entry.getKey());
+                Cell cell = loaded.cells.computeIfAbsent(prefix, key -> new Cell());
+                cell.count++;
+                cell.sumLatitude += latitude;
+                cell.sumLongitude += longitude;
+                cell.latestPhotoId = Math.max(cell.latestPhotoId, photoId);
+            }
+            // 셀 중심이 옮겨가므로 이웃 셀까지 포함하도록 셀 한 칸 여유를 두고 판정
+            clusters.viewports.keySet().removeIf(viewport -> viewport.containsWithMargin(latitude, longitude));
+        }
+    }
+
+    // 사진 삭제 또는 위치 일괄 변경: 대표 사진을 다시 계산해야 하므로 회원 캐시를 버림
+    public void invalidateMember(Long memberId) {
+        if (memberId != null) {
+            members.invalidate(memberId);
+        }
+    }
+
+    public void invalidateAll() {
+        members.invalidateAll();
+    }
+
+    private MemberClusters clustersOf(Long memberId) {
+        synchronized (membersLock) {
+            MemberClusters clusters = members.get(memberId);
+            if (clusters == null) {
+                clusters = new MemberClusters(maxViewportsPerMember);
+                members.put(memberId, clusters);
+            }
+            return clusters;
+        }
+    }
+
+    private LoadedCells loadCells(Long memberId, int precision) {
+        cellLoads.increment();
+        LoadedCells loaded = new LoadedCells();
+        for (GeoCellAggregate aggregate : photoGeoRepository.aggregateCells(memberId, precision)) {
+            Cell cell = new Cell();
+            cell.count = aggregate.count();
+            cell.sumLatitude = aggregate.sumLatitude();
+            cell.sumLongitude = aggregate.sumLongitude();
+            cell.latestPhotoId = aggregate.latestPhotoId();
+            loaded.cells.put(aggregate.cell(), cell);
+            loaded.maxPhotoId = Math.max(loaded.maxPhotoId, aggregate.latestPhotoId());
+        }
+        return loaded;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "photoClusters";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("members", members.stats());
+        stats.put("viewportHits", viewportHits.sum());
+        stats.put("viewportMisses", viewportMisses.sum());
+        stats.put("cellLoads", cellLoads.sum());
+        return stats;
+    }
+
+    private static final class MemberClusters {
+        private final Map<Integer, LoadedCells> cellsByPrecision = new HashMap<>();
+        private final Map<Viewport, List<PhotoClusterResponse>> viewports;
+
+        private MemberClusters(int maxViewports) {
+            this.viewports = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Viewport, List<PhotoClusterResponse>> eldest) {
+                    return size() > maxViewports;
+                }
+            };
+        }
+    }
+
+    // 한 지오해시 길이의 셀 집계와, 집계에 포함된 가장 큰 사진 id
+    private static final class LoadedCells {
+        private final Map<String, Cell> cells = new HashMap<>();
+        private long maxPhotoId;
+    }
+
+    private static final class Cell {
+        private long count;
+        private double sumLatitude;
+        private double sumLongitude;
+        private long latestPhotoId;
+    }
+
+    private record Viewport(int precision, double minLat, double minLon, double maxLat, double maxLon) {
+
+        boolean contains(double latitude, double longitude) {
+            return latitude >= minLat && latitude <= maxLat && longitude >= minLon && longitude <= maxLon;
+        }
+
+        boolean containsWithMargin(double latitude, double longitude) {
+            double height = GeoHash.cellHeight(precision);
+            double width = GeoHash.cellWidth(precision);
+            return latitude >= minLat - height && latitude <= maxLat + height
+                    && longitude >= minLon - width && longitude <= maxLon + width;
+        }
+    }
+}
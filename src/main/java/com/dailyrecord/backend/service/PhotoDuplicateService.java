@@ -0,0 +1,203 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.cache.TtlCache;
+import com.dailyrecord.backend.model.AiGenerateData;
+import com.dailyrecord.backend.model.Photos;
+import com.dailyrecord.backend.repository.AiGenerateDataRepository;
+import com.dailyrecord.backend.repository.PerceptualHashView;
+import com.dailyrecord.backend.repository.PhotosRepository;
+import com.dailyrecord.backend.similarity.BkTree;
+import com.dailyrecord.backend.stats.StatsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// 회원별 비슷한 사진(연속 촬영 등) 찾기.
+// 회원 사진의 지각 해시를 BK-트리로 메모리에 올려 두고 해밍 거리로 검색한다.
+// 사진 추가 시 트리에 넣고, 삭제 시에는 회원 트리를 버린 뒤 다음 조회에서 다시 만든다.
+@Service
+public class PhotoDuplicateService implements StatsSource {
+
+    private final PhotosRepository photosRepository;
+    private final AiGenerateDataRepository aiGenerateDataRepository;
+    private final int defaultMaxDistance;
+    private final int maxAllowedDistance;
+    private final TtlCache<Long, MemberIndex> members;
+    private final Object membersLock = new Object();
+
+    private final LongAdder treeLoads = new LongAdder();
+    private final LongAdder reusedAnalyses = new LongAdder();
+
+    public PhotoDuplicateService(PhotosRepository photosRepository, AiGenerateDataRepository aiGenerateDataRepository,
+                                 @Value("${photo.duplicates.max-distance:10}") int defaultMaxDistance,
+                                 @Value("${photo.duplicates.max-allowed-distance:20}") int maxAllowedDistance,
+                                 @Value("${photo.duplicates.max-members:1000}") int maxMembers,
+                                 @Value("${photo.duplicates.ttl-seconds:1800}") long ttlSeconds) {
+        this.photosRepository = photosRepository;
+        this.aiGenerateDataRepository = aiGenerateDataRepository;
+        this.defaultMaxDistance = defaultMaxDistance;
+        this.maxAllowedDistance = maxAllowedDistance;
+        this.members = new TtlCache<>(maxMembers, ttlSeconds * 1000L);
+    }
+
+    // 사진과 비슷한 같은 회원의 사진 (거리 순, 자기 자신 제외)
+    public List<BkTree.Match> findNearDuplicates(Photos photo, Integer maxDistance) {
+        if (photo.getPerceptualHash() == null) {
+            return List.of();
+        }
+        int distance = resolveDistance(maxDistance);
+        MemberIndex index = indexOf(photo.getMember().getId());
+        List<BkTree.Match> matches;
+        synchronized (index) {
+            matches = index.tree.search(photo.getPerceptualHash(), distance);
+        }
+        List<BkTree.Match> result = new ArrayList<>(matches.size());
+        for (BkTree.Match match : matches) {
+            if (match.id() != photo.getId()) {
+                result.add(match);
+            }
+        }
+        result.sort(Comparator.comparingInt(BkTree.Match::distance).thenComparingLong(BkTree.Match::id));
+        return result;
+    }
+
+    // 회원 사진 전체를 비슷한 사진끼리 묶은 그룹 (2장 이상인 그룹만, 각 그룹은 id 순)
+    public List<List<Long>> findGroups(Long memberId, Integer maxDistance) {
+        int distance = resolveDistance(maxDistance);
+        MemberIndex index = indexOf(memberId);
+
+        Map<Long, Long> parent = new HashMap<>();
+        synchronized (index) {
+            for (Map.Entry<Long, Long> entry : index.hashes.entrySet()) {
+                long id = entry.getKey();
+                for (BkTree.Match match : index.tree.search(entry.getValue(), distance)) {
+                    if (match.id() != id) {
+                        union(parent, id, match.id());
+                    }
+                }
+            }
+        }
+
+        Map<Long, List<Long>> groups = new TreeMap<>();
+        for (Long id : parent.keySet()) {
+            groups.computeIfAbsent(find(parent, id), key -> new ArrayList<>()).add(id);
+        }
+        List<List<Long>> result = new ArrayList<>();
+        for (List<Long> group : groups.values()) {
+            if (group.size() > 1) {
+                group.sort(Comparator.naturalOrder());
+                result.add(group);
+            }
+        }
+        return result;
+    }
+
+    // 같은 입력(캡션)으로 이미 분석된 비슷한 사진이 있으면 그 결과를 반환 (OpenAI 호출 생략용)
+    public Optional<AiGenerateData> findReusableAnalysis(Photos photo, String caption) {
+        List<BkTree.Match> matches = findNearDuplicates(photo, null);
+        if (matches.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<Long, Integer> distances = new HashMap<>();
+        for (BkTree.Match match : matches) {
+            distances.put(match.id(), match.distance());
+        }
+        Optional<AiGenerateData> reusable = aiGenerateDataRepository.findByPhotoIdInAndStatus(distances.keySet(), AiGenerateData.STATUS_COMPLETED).stream()
+                .filter(data -> data.getStory() != null && caption.equals(data.getCaption()))
+                .min(Comparator.comparingInt(data -> distances.get(data.getPhoto().getId())));
+        reusable.ifPresent(data -> reusedAnalyses.increment());
+        return reusable;
+    }
+
+    public void onPhotoAdded(Long memberId, Long photoId, Long perceptualHash) {
+        if (perceptualHash == null) {
+            return;
+        }
+        MemberIndex index = members.get(memberId);
+        if (index == null) {
+            return;
+        }
+        synchronized (index) {
+            if (index.hashes.putIfAbsent(photoId, perceptualHash) == null) {
+                index.tree.add(perceptualHash, photoId);
+            }
+        }
+    }
+
+    // BK-트리는 삭제를 지원하지 않으므로 회원 트리를 버린다
+    public void invalidateMember(Long memberId) {
+        if (memberId != null) {
+            members.invalidate(memberId);
+        }
+    }
+
+    private int resolveDistance(Integer maxDistance) {
+        int distance = maxDistance != null ? maxDistance : defaultMaxDistance;
+        return Math.max(0, Math.min(distance, maxAllowedDistance));
+    }
+
+    private MemberIndex indexOf(Long memberId) {
+        synchronized (membersLock) {
+            MemberIndex index = members.get(memberId);
+            if (index == null) {
+                treeLoads.increment();
+                index = new MemberIndex();
+                for (PerceptualHashView view : photosRepository.findByMemberIdAndPerceptualHashIsNotNull(memberId)) {
+                    index.hashes.put(view.getId(), view.getPerceptualHash());
+                    index.tree.add(view.getPerceptualHash(), view.getId());
+                }
+                members.put(memberId, index);
+            }
+            return index;
+        }
+    }
+
+    private static void union(Map<Long, Long> parent, long a, long b) {
+        long rootA = find(parent, a);
+        long rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent.put(Math.max(rootA, rootB), Math.min(rootA, rootB));
+        }
+    }
+
+    private static long find(Map<Long, Long> parent, long id) {
+        long root = id;
+        Long next;
+        while ((next = parent.get(root)) != null && next != root) {
+            root = next;
+        }
+        parent.put(id, root);
+        if (!parent.containsKey(root)) {
+            parent.put(root, root);
+        }
+        return root;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "nearDuplicates";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("members", members.stats());
+        stats.put("treeLoads", treeLoads.sum());
+        stats.put("reusedAnalyses", reusedAnalyses.sum());
+        return stats;
+    }
+
+    private static final class MemberIndex {
+        private final Map<Long, Long> hashes = new HashMap<>();
+        private final BkTree tree = new BkTree();
+    }
+}
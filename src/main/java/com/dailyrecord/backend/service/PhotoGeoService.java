@@ -0,0 +1,136 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.dto.PhotoLocationResponse;
+import com.dailyrecord.backend.geo.GeoHash;
+import com.dailyrecord.backend.repository.PhotoGeoRepository;
+import com.dailyrecord.backend.repository.PhotoLocation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// 회원별 위치 기반 사진 조회.
+// 지오해시 셀로 (member_id, geohash) 인덱스 범위를 좁히고, 정확한 영역/거리 판정과 개수 제한도 같은 쿼리에서 한다.
+@Service
+public class PhotoGeoService {
+
+    private static final double EARTH_HALF_CIRCUMFERENCE_METERS = 20_037_508.0;
+
+    private final PhotoGeoRepository photoGeoRepository;
+    private final int maxCells;
+    private final int maxResults;
+    private final double initialRadiusMeters;
+
+    public PhotoGeoService(PhotoGeoRepository photoGeoRepository,
+                           @Value("${photo.geo.max-cells:32}") int maxCells,
+                           @Value("${photo.geo.max-results:2000}") int maxResults,
+                           @Value("${photo.geo.nearby-initial-radius-meters:1000}") double initialRadiusMeters) {
+        this.photoGeoRepository = photoGeoRepository;
+        this.maxCells = maxCells;
+        this.maxResults = maxResults;
+        this.initialRadiusMeters = initialRadiusMeters;
+    }
+
+    // 영역 안의 사진 (경도 180도 경계를 넘는 영역은 지원하지 않음)
+    public List<PhotoLocationResponse> findInBoundingBox(Long memberId, double minLat, double minLon,
+                                                         double maxLat, double maxLon, int limit) {
+        validateBoundingBox(minLat, minLon, maxLat, maxLon);
+        int capped = Math.min(Math.max(limit, 1), maxResults);
+
+        int precision = GeoHash.coveringPrecision(minLat, minLon, maxLat, maxLon, maxCells);
+        Set<String> cells = GeoHash.cover(minLat, minLon, maxLat, maxLon, precision);
+        return photoGeoRepository.findInBox(memberId, cells, minLat, minLon, maxLat, maxLon, capped).stream()
+                .map(location -> toResponse(location, null))
+                .toList();
+    }
+
+    // 지점에서 가까운 사진 k 개.
+    // 반경을 두 배씩 넓혀 가며, 반경 원을 덮는 셀에서 반경 안의 가까운 사진을 k 개까지 DB 에서 가져온다.
+    // k 개를 채우면 반경 밖의 사진은 모두 그보다 멀기 때문에 결과가 정확하다 (셀 영역이 반경 원을 모두 덮는 경우).
+    public List<PhotoLocationResponse> findNearest(Long memberId, double latitude, double longitude, int k) {
+        validatePoint(latitude, longitude);
+        int capped = Math.min(Math.max(k, 1), maxResults);
+
+        double radius = initialRadiusMeters;
+        while (true) {
+            boolean wholeEarth = radius >= EARTH_HALF_CIRCUMFERENCE_METERS;
+            List<PhotoLocation> candidates = wholeEarth
+                    ? photoGeoRepository.findNearest(memberId, latitude, longitude, capped)
+                    : queryAround(memberId, latitude, longitude, radius, capped);
+
+            if (candidates.size() >= capped || wholeEarth) {
+                List<PhotoLocationResponse> nearest = new ArrayList<>();
+                for (PhotoLocation location : candidates) {
+                    nearest.add(toResponse(location,
+                            GeoHash.distanceMeters(latitude, longitude, location.latitude(), location.longitude())));
+                }
+                nearest.sort(Comparator.comparingDouble(PhotoLocationResponse::getDistanceMeters));
+                return nearest.size() > capped ? new ArrayList<>(nearest.subList(0, capped)) : nearest;
+            }
+            radius *= 2;
+        }
+    }
+
+    // 반경 안의 사진을 영역별로 limit 개까지 조회해 합침 (가까운 순 정렬은 호출한 쪽에서)
+    private List<PhotoLocation> queryAround(Long memberId, double latitude, double longitude, double radius, int limit) {
+        double latDelta = GeoHash.latitudeDelta(radius);
+        double lonDelta = GeoHash.longitudeDelta(latitude, radius);
+        double minLat = Math.max(-90, latitude - latDelta);
+        double maxLat = Math.min(90, latitude + latDelta);
+        if (lonDelta >= 180) {
+            // 극을 포함하거나 경도 전체를 덮는 반경
+            return queryCircle(memberId, latitude, longitude, radius, limit, minLat, -180, maxLat, 180);
+        }
+
+        // 경도 180도 경계를 넘으면 나눠 조회 (셀이 겹칠 수 있으므로 id 로 중복 제거)
+        double minLon = longitude - lonDelta;
+        double maxLon = longitude + lonDelta;
+        Map<Long, PhotoLocation> results = new LinkedHashMap<>();
+        if (minLon < -180) {
+            queryCircle(memberId, latitude, longitude, radius, limit, minLat, minLon + 360, maxLat, 180)
+                    .forEach(l -> results.put(l.id(), l));
+            minLon = -180;
+        }
+        if (maxLon > 180) {
+            queryCircle(memberId, latitude, longitude, radius, limit, minLat, -180, maxLat, maxLon - 360)
+                    .forEach(l -> results.put(l.id(), l));
+            maxLon = 180;
+        }
+        queryCircle(memberId, latitude, longitude, radius, limit, minLat, minLon, maxLat, maxLon)
+                .forEach(l -> results.put(l.id(), l));
+        return new ArrayList<>(results.values());
+    }
+
+    private List<PhotoLocation> queryCircle(Long memberId, double latitude, double longitude, double radius, int limit,
+                                            double minLat, double minLon, double maxLat, double maxLon) {
+        int precision = GeoHash.coveringPrecision(minLat, minLon, maxLat, maxLon, maxCells);
+        Set<String> cells = GeoHash.cover(minLat, minLon, maxLat, maxLon, precision);
+        return photoGeoRepository.findNearestInCells(memberId, cells, latitude, longitude, radius, limit);
+    }
+
+    private static PhotoLocationResponse toResponse(PhotoLocation location, Double distanceMeters) {
+        return new PhotoLocationResponse(location.id(), location.fileName(), location.latitude(), location.longitude(),
+                location.takenAt(), distanceMeters);
+    }
+
+    private static void validateBoundingBox(double minLat, double minLon, double maxLat, double maxLon) {
+        validatePoint(minLat, minLon);
+        validatePoint(maxLat, maxLon);
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 영역입니다.");
+        }
+    }
+
+    private static void validatePoint(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 좌표입니다.");
+        }
+    }
+}
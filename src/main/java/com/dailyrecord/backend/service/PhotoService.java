@@ -0,0 +1,307 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.dto.BatchUploadResponse;
+import com.dailyrecord.backend.model.Members;
+import com.dailyrecord.backend.model.Photos;
+import com.dailyrecord.backend.model.Posts;
+import com.dailyrecord.backend.repository.MemberRepository;
+import com.dailyrecord.backend.repository.PhotoBatchInserter;
+import com.dailyrecord.backend.repository.PhotosRepository;
+import com.dailyrecord.backend.repository.PostRepository;
+import com.dailyrecord.backend.similarity.PerceptualHash;
+import com.dailyrecord.backend.storage.PhotoStorage;
+import com.dailyrecord.backend.storage.StoredContent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 사진 업로드/삭제: 요청 본문을 한 번만 읽으면서 형식 검사, 저장(SHA-256 계산), EXIF 추출을 함께 처리한다.
+@Service
+public class PhotoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoService.class);
+
+    private final PhotoStorage photoStorage;
+    private final ExifService exifService;
+    private final ThumbnailService thumbnailService;
+    private final PhotoClusterService photoClusterService;
+    private final PhotoTimelineService photoTimelineService;
+    private final PhotoDuplicateService photoDuplicateService;
+    private final PhotosRepository photosRepository;
+    private final PhotoBatchInserter photoBatchInserter;
+    private final MemberRepository membersRepository;
+    private final PostRepository postsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // EXIF 파싱을 위해 메모리에 보관할 파일 앞부분 크기 (JPEG APP1 세그먼트는 최대 64KB)
+    private final int exifHeadBytes;
+
+    // 일괄 업로드 시 파일 저장 + EXIF 추출을 병렬로 처리하는 스레드 풀
+    private final ExecutorService batchExecutor;
+
+    public PhotoService(PhotoStorage photoStorage, ExifService exifService, ThumbnailService thumbnailService,
+                        PhotoClusterService photoClusterService, PhotoTimelineService photoTimelineService,
+                        PhotoDuplicateService photoDuplicateService,
+                        PhotosRepository photosRepository, PhotoBatchInserter photoBatchInserter,
+                        MemberRepository membersRepository, PostRepository postsRepository,
+                        TransactionTemplate transactionTemplate,
+                        @Value("${photo.upload.exif-head-bytes:262144}") int exifHeadBytes,
+                        @Value("${photo.upload.batch-threads:4}") int batchThreads,
+                        @Value("${photo.upload.batch-queue-capacity:64}") int batchQueueCapacity) {
+        this.photoStorage = photoStorage;
+        this.exifService = exifService;
+        this.thumbnailService = thumbnailService;
+        this.photoClusterService = photoClusterService;
+        this.photoTimelineService = photoTimelineService;
+        this.photoDuplicateService = photoDuplicateService;
+        this.photosRepository = photosRepository;
+        this.photoBatchInserter = photoBatchInserter;
+        this.membersRepository = membersRepository;
+        this.postsRepository = postsRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.exifHeadBytes = exifHeadBytes;
+        AtomicInteger threadNumber = new AtomicInteger();
+        // 큐가 가득 차면 요청 스레드가 직접 처리 (대기 작업이 무한히 쌓이지 않고, 일괄 업로드가 중간에 끊기지도 않음)
+        this.batchExecutor = new ThreadPoolExecutor(batchThreads, batchThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "photo-batch-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public Photos upload(InputStream in, String originalFileName, Long memberId, Long postId) throws IOException {
+        // 멤버 및 게시글 조회
+        Members member = findMember(memberId);
+        Posts post = findPost(postId);
+
+        PreparedUpload prepared = prepare(in, originalFileName);
+        Photos saved;
+        try {
+            saved = saveWithAggregates(prepared.toPhoto(member, post));
+        } catch (RuntimeException e) {
+            photoStorage.release(prepared.stored.contentHash());
+            throw e;
+        }
+        onPhotoSaved(saved);
+        return saved;
+    }
+
+    // 분할 업로드로 디스크에 모두 받은 파일을 저장소로 옮기고 Photos 생성
+    public Photos createFromFile(Path file, String originalFileName, Long memberId, Long postId) throws IOException {
+        Members member = findMember(memberId);
+        Posts post = findPost(postId);
+
+        byte[] header;
+        try (InputStream in = Files.newInputStream(file)) {
+            header = in.readNBytes(MediaFormat.SNIFF_LENGTH);
+        }
+        MediaFormat format = MediaFormat.detect(header, header.length);
+        if (format == null) {
+            throw new IllegalArgumentException("지원하지 않는 파일 형식입니다.");
+        }
+
+        StoredContent stored = photoStorage.storeFile(file);
+        ExifResult exif = exifService.extract(stored.path());
+        PreparedUpload prepared = new PreparedUpload(UUID.randomUUID() + "_" + originalFileName, stored, format, exif,
+                perceptualHash(stored, format));
+
+        Photos saved;
+        try {
+            saved = saveWithAggregates(prepared.toPhoto(member, post));
+        } catch (RuntimeException e) {
+            photoStorage.release(stored.contentHash());
+            throw e;
+        }
+        onPhotoSaved(saved);
+        return saved;
+    }
+
+    // 여러 파일 일괄 업로드: 회원/게시글은 한 번만 조회하고, 파일 처리는 병렬로, DB 저장은 배치 INSERT 로 처리
+    public List<BatchUploadResponse.Item> uploadBatch(List<MultipartFile> files, Long memberId, Long postId) throws IOException {
+        Members member = findMember(memberId);
+        Posts post = findPost(postId);
+
+        List<CompletableFuture<PreparedUpload>> futures = new ArrayList<>();
+        for (MultipartFile file : files) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try (InputStream in = file.getInputStream()) {
+                    return prepare(in, file.getOriginalFilename());
+                } catch (IOException e) {
+                    throw new IllegalStateException("파일 저장 실패", e);
+                }
+            }, batchExecutor));
+        }
+
+        List<BatchUploadResponse.Item> results = new ArrayList<>();
+        List<PreparedUpload> prepared = new ArrayList<>();
+        List<Photos> photos = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            String originalFileName = files.get(i).getOriginalFilename();
+            try {
+                PreparedUpload upload = futures.get(i).join();
+                prepared.add(upload);
+                photos.add(upload.toPhoto(member, post));
+                results.add(null); // DB 저장 후 채움
+            } catch (RuntimeException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.warn("일괄 업로드 파일 처리 실패 ({}): {}", originalFileName, cause.getMessage());
+                results.add(new BatchUploadResponse.Item(originalFileName, null, null, cause.getMessage()));
+            }
+        }
+
+        try {
+            // 사진 INSERT 와 타임라인 집계 갱신을 한 트랜잭션으로 (어느 한쪽만 반영되지 않도록)
+            transactionTemplate.executeWithoutResult(status -> {
+                photoBatchInserter.insertAll(photos);
+                photos.forEach(photoTimelineService::onPhotoAdded);
+            });
+        } catch (RuntimeException e) {
+            for (PreparedUpload upload : prepared) {
+                photoStorage.release(upload.stored.contentHash());
+            }
+            throw e;
+        }
+
+        int next = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                Photos photo = photos.get(next++);
+                results.set(i, new BatchUploadResponse.Item(files.get(i).getOriginalFilename(), photo.getFileName(), photo.getId(), null));
+                onPhotoSaved(photo);
+            }
+        }
+        return results;
+    }
+
+    // 사진 삭제 (저장된 파일은 참조가 모두 없어질 때 삭제)
+    public boolean deletePhoto(Long photoId) throws IOException {
+        Photos photo = photosRepository.findById(photoId).orElse(null);
+        if (photo == null) {
+            return false;
+        }
+        // 사진 삭제와 타임라인 집계 갱신을 한 트랜잭션으로 (대표 사진 재계산이 삭제를 보도록 먼저 flush)
+        transactionTemplate.executeWithoutResult(status -> {
+            photosRepository.delete(photo);
+            photosRepository.flush();
+            photoTimelineService.onPhotoDeleted(photo);
+        });
+        photoClusterService.invalidateMember(photo.getMember().getId());
+        photoDuplicateService.invalidateMember(photo.getMember().getId());
+        if (photo.getContentHash() != null) {
+            photoStorage.release(photo.getContentHash());
+        }
+        logger.info("Deleted photo {}", photoId);
+        return true;
+    }
+
+    // 파일 저장 + EXIF 추출 (DB 저장 전 단계)
+    private PreparedUpload prepare(InputStream in, String originalFileName) throws IOException {
+        // 매직 바이트로 이미지 여부를 먼저 확인 (디스크에 쓰기 전에 거부)
+        HeadCapturingInputStream capturing = new HeadCapturingInputStream(in, exifHeadBytes);
+        byte[] header = capturing.readNBytes(MediaFormat.SNIFF_LENGTH);
+        MediaFormat format = MediaFormat.detect(header, header.length);
+        if (format == null || !format.isImage()) {
+            throw new IllegalArgumentException("이미지 파일만 업로드할 수 있습니다.");
+        }
+
+        // 파일 저장 (한 번의 스트림 읽기)
+        StoredContent stored = photoStorage.store(new SequenceInputStream(new ByteArrayInputStream(header), capturing));
+
+        // EXIF 데이터 추출 (메모리의 앞부분 사용)
+        ExifResult exif = exifService.extract(
+                capturing.getHead(), capturing.getHeadLength(), capturing.isComplete(), stored.path());
+
+        String fileName = UUID.randomUUID() + "_" + originalFileName;
+        return new PreparedUpload(fileName, stored, format, exif, perceptualHash(stored, format));
+    }
+
+    // 비슷한 사진 찾기용 지각 해시 (디코딩할 수 없는 형식이거나 실패하면 null)
+    private Long perceptualHash(StoredContent stored, MediaFormat format) {
+        if (!ThumbnailService.isDecodable(format.getContentType())) {
+            return null;
+        }
+        try {
+            return PerceptualHash.compute(stored.path());
+        } catch (Exception e) {
+            logger.debug("Perceptual hash failed for {}: {}", stored.contentHash(), e.getMessage());
+            return null;
+        }
+    }
+
+    // 사진 INSERT 와 타임라인 집계 갱신을 한 트랜잭션으로 (어느 한쪽만 반영되지 않도록)
+    private Photos saveWithAggregates(Photos photo) {
+        return transactionTemplate.execute(status -> {
+            Photos saved = photosRepository.save(photo);
+            photoTimelineService.onPhotoAdded(saved);
+            return saved;
+        });
+    }
+
+    // 사진 저장(커밋) 후 처리 (썸네일 생성 예약, 지도 클러스터/비슷한 사진 색인 갱신)
+    private void onPhotoSaved(Photos photo) {
+        photoDuplicateService.onPhotoAdded(photo.getMember().getId(), photo.getId(), photo.getPerceptualHash());
+        thumbnailService.scheduleDerivatives(photo);
+        photoClusterService.onPhotoAdded(photo.getMember().getId(), photo.getId(), photo.getLatitude(), photo.getLongitude());
+    }
+
+    Members findMember(Long memberId) {
+        return membersRepository.findById(memberId)
+                .orElseThrow(() -> new RuntimeException("Member not found with ID: " + memberId));
+    }
+
+    Posts findPost(Long postId) {
+        return postsRepository.findById(postId)
+                .orElseThrow(() -> new RuntimeException("Post not found with ID: " + postId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdown();
+    }
+
+    private record PreparedUpload(String fileName, StoredContent stored, MediaFormat format, ExifResult exif,
+                                  Long perceptualHash) {
+
+        Photos toPhoto(Members member, Posts post) {
+            Photos photo = new Photos();
+            photo.setFileName(fileName);
+            photo.setFileSize(stored.size());
+            photo.setContentHash(stored.contentHash());
+            photo.setContentType(format.getContentType());
+            photo.setPerceptualHash(perceptualHash);
+
+            // EXIF 값이 없으면 null 로 둔다 (기본값을 채우지 않음)
+            photo.setLatitude(exif.latitudeOrNull());
+            photo.setLongitude(exif.longitudeOrNull());
+            photo.setTakenAt(exif.takenAt());
+
+            // 관계 설정
+            photo.setMember(member);
+            photo.setPost(post);
+            return photo;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.model.Photos;
+import com.dailyrecord.backend.repository.PhotoTimelineRepository;
+import com.dailyrecord.backend.repository.PhotoTimelineRepository.TimelineRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// 타임라인(날짜별/월별 사진 수) 조회. GROUP BY 대신 업로드/삭제 시 갱신되는 photo_daily_counts 를 읽는다.
+@Service
+public class PhotoTimelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoTimelineService.class);
+
+    public static final String GRANULARITY_DAY = "day";
+    public static final String GRANULARITY_MONTH = "month";
+
+    private final PhotoTimelineRepository photoTimelineRepository;
+
+    public PhotoTimelineService(PhotoTimelineRepository photoTimelineRepository) {
+        this.photoTimelineRepository = photoTimelineRepository;
+    }
+
+    // 집계 테이블이 비어 있으면 (최초 배포) 기존 사진으로 채운다
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (photoTimelineRepository.isEmpty()) {
+            photoTimelineRepository.rebuild();
+            logger.info("Photo timeline aggregates rebuilt");
+        }
+    }
+
+    public List<TimelineRow> getTimeline(Long memberId, LocalDate from, LocalDate to, String granularity) {
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "시작 날짜가 종료 날짜보다 늦습니다.");
+        }
+        if (GRANULARITY_DAY.equals(granularity)) {
+            return photoTimelineRepository.findDays(memberId, from, to);
+        }
+        if (GRANULARITY_MONTH.equals(granularity)) {
+            return photoTimelineRepository.findMonths(memberId, from.withDayOfMonth(1), to.withDayOfMonth(to.lengthOfMonth()));
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "granularity 는 day 또는 month 입니다.");
+    }
+
+    public void onPhotoAdded(Photos photo) {
+        photoTimelineRepository.increment(photo.getMember().getId(), photoDate(photo), photo.getId());
+    }
+
+    public void onPhotoDeleted(Photos photo) {
+        photoTimelineRepository.decrement(photo.getMember().getId(), photoDate(photo), photo.getId());
+    }
+
+    // 촬영 시각이 일괄 변경된 경우 (EXIF 백필 등)
+    public void rebuild() {
+        photoTimelineRepository.rebuild();
+    }
+
+    private static LocalDate photoDate(Photos photo) {
+        LocalDateTime dateTime = photo.getTakenAt() != null ? photo.getTakenAt() : photo.getCreatedAt();
+        return dateTime.toLocalDate();
+    }
+}
@@ -0,0 +1,155 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.dto.AnalysisRequest;
+import com.dailyrecord.backend.model.AiGenerateData;
+import com.dailyrecord.backend.model.Photos;
+import com.dailyrecord.backend.model.Posts;
+import com.dailyrecord.backend.repository.PhotosRepository;
+import com.dailyrecord.backend.repository.PostRepository;
+import com.dailyrecord.backend.service.PhotoAnalysisService.BatchOutcome;
+import com.dailyrecord.backend.stats.LatencyStats;
+import com.dailyrecord.backend.stats.StatsSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// 게시글의 모든 사진을 한 번에 분석. 이미 분석된 사진은 건너뛰고, 나머지는 제한된 수만큼 동시에 OpenAI 를 호출한다.
+// 선택적으로 사진별 스토리를 묶어 게시글 전체 글(posts.ai_story)을 만든다.
+@Service
+public class PostAnalysisService implements StatsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostAnalysisService.class);
+
+    private final PostRepository postRepository;
+    private final PhotosRepository photosRepository;
+    private final PhotoAnalysisService photoAnalysisService;
+    private final OpenAiService openAiService;
+    private final ThreadPoolExecutor executor;
+
+    private final LatencyStats postLatency = new LatencyStats();
+    private final LongAdder posts = new LongAdder();
+    private final Map<String, LongAdder> photoOutcomes = new LinkedHashMap<>();
+    private final LongAdder postStories = new LongAdder();
+    private final LongAdder postStoryFailures = new LongAdder();
+
+    public PostAnalysisService(PostRepository postRepository, PhotosRepository photosRepository,
+                               PhotoAnalysisService photoAnalysisService, OpenAiService openAiService,
+                               @Value("${ai.post-analysis.concurrency:5}") int concurrency,
+                               @Value("${ai.post-analysis.queue-capacity:200}") int queueCapacity) {
+        this.postRepository = postRepository;
+        this.photosRepository = photosRepository;
+        this.photoAnalysisService = photoAnalysisService;
+        this.openAiService = openAiService;
+        for (String status : List.of(BatchOutcome.COMPLETED, BatchOutcome.SKIPPED, BatchOutcome.IN_PROGRESS, BatchOutcome.FAILED)) {
+            photoOutcomes.put(status, new LongAdder());
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "post-analysis-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public PostAnalysisResult analyzePost(Long postId, AnalysisRequest request, boolean combined) {
+        long startedAt = System.nanoTime();
+        Posts post = postRepository.findById(postId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 게시글이 존재하지 않습니다."));
+
+        // 사진과 분석 데이터를 한 번의 쿼리로 조회하고, 완료된 사진은 선점 없이 건너뜀
+        List<Photos> photos = photosRepository.findByPostIdWithAnalysis(postId);
+        Map<Long, String> existingStories = new HashMap<>();
+        List<Photos> pending = new ArrayList<>();
+        for (Photos photo : photos) {
+            AiGenerateData aiData = photo.getAiGenerateData();
+            if (aiData != null && AiGenerateData.STATUS_COMPLETED.equals(aiData.getStatus())) {
+                existingStories.put(photo.getId(), aiData.getStory());
+            } else {
+                pending.add(photo);
+            }
+        }
+
+        Map<Long, BatchOutcome> outcomes = new HashMap<>();
+        if (!pending.isEmpty()) {
+            for (BatchOutcome outcome : photoAnalysisService.analyzeBatch(pending, request, executor)) {
+                outcomes.put(outcome.photoId(), outcome);
+            }
+        }
+
+        List<BatchOutcome> ordered = new ArrayList<>();
+        List<String> stories = new ArrayList<>();
+        for (Photos photo : photos) {
+            BatchOutcome outcome = outcomes.getOrDefault(photo.getId(), BatchOutcome.skipped(photo.getId()));
+            ordered.add(outcome);
+            photoOutcomes.get(outcome.status()).increment();
+            String story = outcome.result() != null ? outcome.result().story() : existingStories.get(photo.getId());
+            if (story != null && !story.isBlank()) {
+                stories.add(story);
+            }
+        }
+
+        String postStory = null;
+        String postStoryError = null;
+        if (combined && !stories.isEmpty()) {
+            try {
+                postStory = openAiService.generatePostStory(post, stories, request);
+                postRepository.updateAiStory(postId, postStory);
+                postStories.increment();
+            } catch (RuntimeException e) {
+                postStoryFailures.increment();
+                postStoryError = String.valueOf(e.getMessage());
+                logger.warn("Post story generation failed for post {}: {}", postId, e.getMessage());
+            }
+        }
+
+        posts.increment();
+        postLatency.record(System.nanoTime() - startedAt);
+        return new PostAnalysisResult(postId, ordered, postStory, postStoryError);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String getStatsName() {
+        return "postAnalysis";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("posts", posts.sum());
+        Map<String, Long> photoCounts = new LinkedHashMap<>();
+        photoOutcomes.forEach((status, count) -> photoCounts.put(status, count.sum()));
+        stats.put("photos", photoCounts);
+        stats.put("postStories", postStories.sum());
+        stats.put("postStoryFailures", postStoryFailures.sum());
+        stats.put("latency", postLatency.toMap());
+        return stats;
+    }
+
+    public record PostAnalysisResult(Long postId, List<BatchOutcome> photos, String postStory, String postStoryError) {
+    }
+}
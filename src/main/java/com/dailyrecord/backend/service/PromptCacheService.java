@@ -0,0 +1,113 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.cache.TtlCache;
+import com.dailyrecord.backend.model.AiPromptCache;
+import com.dailyrecord.backend.repository.AiPromptCacheRepository;
+import com.dailyrecord.backend.stats.StatsSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// OpenAI 응답 캐시. 메모리(LRU + TTL)를 먼저 보고, 없으면 ai_prompt_cache 테이블을 본다.
+// 키는 모델, 시스템 메시지, 프롬프트를 합친 SHA-256 이므로 입력이 같으면 다른 사진이어도 같은 결과를 재사용한다.
+@Service
+public class PromptCacheService implements StatsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromptCacheService.class);
+
+    private final AiPromptCacheRepository aiPromptCacheRepository;
+    private final TtlCache<String, String> memory;
+    private final long persistentTtlDays;
+
+    private final LongAdder persistentHits = new LongAdder();
+    private final LongAdder persistentMisses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    public PromptCacheService(AiPromptCacheRepository aiPromptCacheRepository,
+                              @Value("${ai.prompt-cache.max-size:1000}") int maxSize,
+                              @Value("${ai.prompt-cache.ttl-seconds:86400}") long ttlSeconds,
+                              @Value("${ai.prompt-cache.persistent-ttl-days:30}") long persistentTtlDays) {
+        this.aiPromptCacheRepository = aiPromptCacheRepository;
+        this.memory = new TtlCache<>(maxSize, ttlSeconds * 1000L);
+        this.persistentTtlDays = persistentTtlDays;
+    }
+
+    public static String key(String model, String systemMessage, String prompt) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(model.getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            md.update(systemMessage.getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            md.update(prompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(md.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // 캐시된 응답 (없으면 null)
+    public String get(String key) {
+        String cached = memory.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        AiPromptCache stored = aiPromptCacheRepository
+                .findByPromptHashAndCreatedAtAfter(key, LocalDateTime.now().minusDays(persistentTtlDays))
+                .orElse(null);
+        if (stored == null) {
+            persistentMisses.increment();
+            return null;
+        }
+        persistentHits.increment();
+        memory.put(key, stored.getResponse());
+        return stored.getResponse();
+    }
+
+    public void put(String key, String model, String response) {
+        memory.put(key, response);
+        try {
+            aiPromptCacheRepository.upsert(key, model, response, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            // 영구 저장 실패는 응답에 영향을 주지 않음
+            logger.warn("Failed to persist prompt cache entry: {}", e.getMessage());
+        }
+    }
+
+    // 요청에서 캐시를 쓰지 않기로 한 경우 (결과는 새로 저장)
+    public void recordBypass() {
+        bypassed.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${ai.prompt-cache.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        memory.purgeExpired();
+        aiPromptCacheRepository.deleteCreatedBefore(LocalDateTime.now().minusDays(persistentTtlDays));
+    }
+
+    @Override
+    public String getStatsName() {
+        return "promptCache";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("memory", memory.stats());
+        stats.put("persistentHits", persistentHits.sum());
+        stats.put("persistentMisses", persistentMisses.sum());
+        stats.put("bypassed", bypassed.sum());
+        return stats;
+    }
+}
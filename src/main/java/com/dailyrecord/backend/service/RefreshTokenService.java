@@ -0,0 +1,131 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.dto.LoginResponse;
+import com.dailyrecord.backend.model.Members;
+import com.dailyrecord.backend.model.RefreshToken;
+import com.dailyrecord.backend.repository.RefreshTokenRepository;
+import com.dailyrecord.backend.security.JwtTokenProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+// 불투명(opaque) 리프레시 토큰 발급/회전. DB 에는 SHA-256 해시만 저장한다.
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final long refreshTokenExpirationMs;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               JwtTokenProvider jwtTokenProvider,
+                               @Value("${jwt.refresh-token.expiration-ms:1209600000}") long refreshTokenExpirationMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.refreshTokenExpirationMs = refreshTokenExpirationMs;
+    }
+
+    public long getRefreshTokenExpirationMs() {
+        return refreshTokenExpirationMs;
+    }
+
+    // 로그인 성공 시 새 리프레시 토큰 발급 (반환값은 원문)
+    public String issue(Members member) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(rawToken));
+        refreshToken.setMember(member);
+        refreshToken.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshTokenExpirationMs)));
+        refreshTokenRepository.save(refreshToken);
+        return rawToken;
+    }
+
+    // 리프레시 토큰을 새 액세스 토큰 + 새 리프레시 토큰으로 교환 (기존 토큰은 폐기)
+    // 재사용 감지 시 회원 토큰 전체 폐기는 예외를 던진 뒤에도 커밋되어야 하므로 롤백하지 않음
+    @Transactional(noRollbackFor = RefreshTokenReuseException.class)
+    public LoginResponse rotate(String rawToken) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+        Members member = refreshToken.getMember();
+
+        if (refreshToken.getRevokedAt() != null) {
+            throw reuseDetected(member);
+        }
+        if (refreshToken.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Refresh token expired");
+        }
+        if (Boolean.FALSE.equals(member.getIsActive())) {
+            throw new IllegalArgumentException("Member is deactivated");
+        }
+
+        // 조건부 update 로 사용 처리: 같은 토큰으로 동시에 회전하면 한 요청만 성공하고 나머지는 재사용으로 처리
+        if (refreshTokenRepository.markUsed(refreshToken.getId(), LocalDateTime.now()) == 0) {
+            throw reuseDetected(member);
+        }
+
+        return new LoginResponse(jwtTokenProvider.generateAccessToken(member), issue(member));
+    }
+
+    // 이미 사용된 토큰 재사용 -> 탈취 가능성이 있으므로 해당 회원의 토큰을 모두 폐기
+    private RefreshTokenReuseException reuseDetected(Members member) {
+        logger.warn("Refresh token reuse detected for member id: {}", member.getId());
+        refreshTokenRepository.revokeAllByMemberId(member.getId(), LocalDateTime.now());
+        return new RefreshTokenReuseException();
+    }
+
+    // 로그아웃 시 리프레시 토큰 폐기
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken)).ifPresent(refreshToken -> {
+            if (refreshToken.getRevokedAt() == null) {
+                refreshToken.setRevokedAt(LocalDateTime.now());
+                refreshTokenRepository.save(refreshToken);
+            }
+        });
+    }
+
+    // 탈퇴, 비밀번호 변경 시 회원의 모든 리프레시 토큰 폐기
+    @Transactional
+    public void revokeAll(Long memberId) {
+        refreshTokenRepository.revokeAllByMemberId(memberId, LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static class RefreshTokenReuseException extends IllegalArgumentException {
+        public RefreshTokenReuseException() {
+            super("Refresh token already used");
+        }
+    }
+}
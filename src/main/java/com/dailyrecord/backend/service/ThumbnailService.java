@@ -0,0 +1,242 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.model.Photos;
+import com.dailyrecord.backend.stats.LatencyStats;
+import com.dailyrecord.backend.stats.StatsSource;
+import com.dailyrecord.backend.storage.PhotoStorage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// 썸네일(파생 이미지) 생성. 업로드 후 백그라운드로 미리 만들고, 없는 경우 요청 시 생성한다.
+// 같은 파일/크기에 대한 동시 생성은 하나로 합친다.
+@Service
+public class ThumbnailService implements StatsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailService.class);
+
+    // ImageIO 로 디코딩할 수 있는 형식
+    private static final Set<String> DECODABLE_TYPES = Set.of("image/jpeg", "image/png", "image/gif", "image/bmp", "image/tiff");
+
+    private final PhotoStorage photoStorage;
+    private final ExifService exifService;
+    private final List<Integer> sizes;
+    private final float jpegQuality;
+    private final long onDemandTimeoutMs;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    private final LatencyStats generationLatency = new LatencyStats();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public ThumbnailService(PhotoStorage photoStorage, ExifService exifService,
+                            @Value("${photo.derivatives.sizes:320,1080}") int[] sizes,
+                            @Value("${photo.derivatives.jpeg-quality:0.82}") float jpegQuality,
+                            @Value("${photo.derivatives.threads:2}") int threads,
+                            @Value("${photo.derivatives.queue-capacity:500}") int queueCapacity,
+                            @Value("${photo.derivatives.on-demand-timeout-ms:10000}") long onDemandTimeoutMs) {
+        this.photoStorage = photoStorage;
+        this.exifService = exifService;
+        this.sizes = Arrays.stream(sizes).boxed().sorted(Comparator.reverseOrder()).toList();
+        this.jpegQuality = jpegQuality;
+        this.onDemandTimeoutMs = onDemandTimeoutMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean isSupportedSize(int size) {
+        return sizes.contains(size);
+    }
+
+    public static boolean isDecodable(String contentType) {
+        return contentType != null && DECODABLE_TYPES.contains(contentType);
+    }
+
+    // 업로드 직후 모든 크기의 썸네일을 백그라운드로 생성 (대기열이 가득 차면 요청 시 생성으로 미룸)
+    public void scheduleDerivatives(Photos photo) {
+        String contentHash = photo.getContentHash();
+        if (contentHash == null || !isDecodable(photo.getContentType())) {
+            return;
+        }
+        try {
+            executor.execute(() -> generateMissing(contentHash));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            logger.debug("Thumbnail queue full, deferring {} to on-demand generation", contentHash);
+        }
+    }
+
+    // 요청한 크기의 썸네일 경로 반환 (없으면 생성하여 기다림)
+    public Path getDerivative(Photos photo, int size) throws IOException {
+        if (!isDecodable(photo.getContentType())) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "썸네일을 만들 수 없는 형식입니다.");
+        }
+        String contentHash = photo.getContentHash();
+        Path path = photoStorage.resolveDerivative(contentHash, variant(size));
+        if (Files.exists(path)) {
+            return path;
+        }
+
+        String key = key(contentHash, size);
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, created);
+        CompletableFuture<Path> future = existing != null ? existing : created;
+        if (existing == null) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        created.complete(generate(contentHash, List.of(size)).get(0));
+                    } catch (Throwable t) {
+                        created.completeExceptionally(t);
+                    } finally {
+                        inFlight.remove(key, created);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                dropped.increment();
+                inFlight.remove(key, created);
+                created.completeExceptionally(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "썸네일 생성 대기열이 가득 찼습니다."));
+            }
+        }
+
+        try {
+            return future.get(onDemandTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "썸네일 생성 중입니다. 잠시 후 다시 시도해주세요.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for thumbnail", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    // 없는 크기만 골라 한 번의 디코딩으로 생성
+    private void generateMissing(String contentHash) {
+        List<Integer> missing = new ArrayList<>();
+        List<CompletableFuture<Path>> claimed = new ArrayList<>();
+        for (int size : sizes) {
+            if (Files.exists(photoStorage.resolveDerivative(contentHash, variant(size)))) {
+                continue;
+            }
+            CompletableFuture<Path> future = new CompletableFuture<>();
+            if (inFlight.putIfAbsent(key(contentHash, size), future) == null) {
+                missing.add(size);
+                claimed.add(future);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try {
+            List<Path> paths = generate(contentHash, missing);
+            for (int i = 0; i < claimed.size(); i++) {
+                claimed.get(i).complete(paths.get(i));
+            }
+        } catch (Throwable t) {
+            claimed.forEach(future -> future.completeExceptionally(t));
+            logger.warn("Thumbnail generation failed for {}: {}", contentHash, t.getMessage());
+        } finally {
+            for (int i = 0; i < missing.size(); i++) {
+                inFlight.remove(key(contentHash, missing.get(i)), claimed.get(i));
+            }
+        }
+    }
+
+    // sizes 는 큰 순서. 원본을 한 번만 디코딩한 뒤 단계적으로 축소
+    private List<Path> generate(String contentHash, List<Integer> sizes) throws IOException {
+        long startedAt = System.nanoTime();
+        try {
+            Path original = photoStorage.resolve(contentHash);
+            int largest = sizes.stream().max(Integer::compare).orElseThrow();
+            BufferedImage image = ImageResizer.read(original, largest);
+            image = ImageResizer.applyOrientation(image, exifService.extract(original).orientation());
+
+            Map<Integer, Path> generated = new LinkedHashMap<>();
+            for (int size : sizes.stream().sorted(Comparator.reverseOrder()).toList()) {
+                BufferedImage scaled = ImageResizer.scaleToFit(image, size);
+                generated.put(size, photoStorage.storeDerivative(contentHash, variant(size),
+                        out -> ImageResizer.writeJpeg(scaled, jpegQuality, out)));
+                image = scaled;
+            }
+            return sizes.stream().map(generated::get).toList();
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            throw e;
+        } finally {
+            generationLatency.record(System.nanoTime() - startedAt);
+        }
+    }
+
+    public static String variant(int size) {
+        return "w" + size + ".jpg";
+    }
+
+    private static String key(String contentHash, int size) {
+        return contentHash + "_" + size;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String getStatsName() {
+        return "thumbnails";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("inFlight", inFlight.size());
+        stats.put("failures", failures.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("generation", generationLatency.toMap());
+        return stats;
+    }
+}
@@ -0,0 +1,150 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.cache.TtlCache;
+import com.dailyrecord.backend.model.Photos;
+import com.dailyrecord.backend.stats.LatencyStats;
+import com.dailyrecord.backend.stats.StatsSource;
+import com.dailyrecord.backend.storage.PhotoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// 비전 모델 입력용 이미지. 원본을 긴 변 기준으로 축소·재압축한 JPEG 를 파생 이미지로 저장하고,
+// base64 data URL 은 메모리에 캐시하여 같은 사진을 다시 분석할 때 디코딩/인코딩을 반복하지 않는다.
+@Service
+public class VisionImageService implements StatsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(VisionImageService.class);
+
+    // OpenAI 이미지 토큰 계산 (detail=low 는 고정, high 는 512px 타일 단위)
+    private static final int BASE_TOKENS = 85;
+    private static final int TOKENS_PER_TILE = 170;
+
+    private final PhotoStorage photoStorage;
+    private final ExifService exifService;
+    private final int maxLongEdge;
+    private final float jpegQuality;
+    private final String detail;
+    private final String variant;
+
+    // contentHash -> 인코딩된 이미지
+    private final TtlCache<String, VisionImage> encoded;
+
+    private final LatencyStats encodeLatency = new LatencyStats();
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder encodes = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public VisionImageService(PhotoStorage photoStorage, ExifService exifService,
+                              @Value("${ai.vision.max-long-edge:512}") int maxLongEdge,
+                              @Value("${ai.vision.jpeg-quality:0.7}") float jpegQuality,
+                              @Value("${ai.vision.detail:low}") String detail,
+                              @Value("${ai.vision.cache.max-size:200}") int maxCacheSize,
+                              @Value("${ai.vision.cache.ttl-seconds:1800}") long ttlSeconds) {
+        this.photoStorage = photoStorage;
+        this.exifService = exifService;
+        this.maxLongEdge = maxLongEdge;
+        this.jpegQuality = jpegQuality;
+        this.detail = detail;
+        // 설정이 바뀌면 다른 파일이 되도록 크기와 품질을 이름에 포함
+        this.variant = String.format(Locale.ROOT, "vision-w%d-q%d.jpg", maxLongEdge, Math.round(jpegQuality * 100));
+        this.encoded = new TtlCache<>(maxCacheSize, ttlSeconds * 1000L);
+    }
+
+    // 사진을 비전 입력으로 변환 (디코딩할 수 없는 형식이거나 실패하면 null: 텍스트만으로 분석)
+    public VisionImage getImage(Photos photo) {
+        String contentHash = photo.getContentHash();
+        if (contentHash == null || !ThumbnailService.isDecodable(photo.getContentType())) {
+            skipped.increment();
+            return null;
+        }
+
+        VisionImage cached = encoded.get(contentHash);
+        if (cached != null) {
+            memoryHits.increment();
+            return cached;
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            Path path = photoStorage.resolveDerivative(contentHash, variant);
+            BufferedImage image;
+            if (Files.exists(path)) {
+                diskHits.increment();
+                image = ImageIO.read(path.toFile());
+            } else {
+                encodes.increment();
+                Path original = photoStorage.resolve(contentHash);
+                image = ImageResizer.read(original, maxLongEdge);
+                image = ImageResizer.applyOrientation(image, exifService.extract(original).orientation());
+                BufferedImage scaled = ImageResizer.scaleToFit(image, maxLongEdge);
+                path = photoStorage.storeDerivative(contentHash, variant,
+                        out -> ImageResizer.writeJpeg(scaled, jpegQuality, out));
+                image = scaled;
+            }
+
+            String dataUrl = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(Files.readAllBytes(path));
+            VisionImage visionImage = new VisionImage(contentHash + "/" + variant + "/" + detail, dataUrl, detail,
+                    estimateTokens(image.getWidth(), image.getHeight()));
+            encoded.put(contentHash, visionImage);
+            return visionImage;
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            logger.warn("Vision image preparation failed for photo {}: {}", photo.getId(), e.getMessage());
+            return null;
+        } finally {
+            encodeLatency.record(System.nanoTime() - startedAt);
+        }
+    }
+
+    private int estimateTokens(int width, int height) {
+        if ("low".equals(detail)) {
+            return BASE_TOKENS;
+        }
+        // high: 2048 이내로 맞춘 뒤 짧은 변을 768 로 줄이고 512px 타일 수를 센다
+        double scale = Math.min(1.0, 2048.0 / Math.max(width, height));
+        scale = Math.min(scale, 768.0 / Math.min(width, height));
+        int tilesX = (int) Math.ceil(width * scale / 512.0);
+        int tilesY = (int) Math.ceil(height * scale / 512.0);
+        return BASE_TOKENS + TOKENS_PER_TILE * tilesX * tilesY;
+    }
+
+    @Override
+    public String getStatsName() {
+        return "visionImages";
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxLongEdge", maxLongEdge);
+        stats.put("jpegQuality", jpegQuality);
+        stats.put("detail", detail);
+        stats.put("memoryHits", memoryHits.sum());
+        stats.put("diskHits", diskHits.sum());
+        stats.put("encodes", encodes.sum());
+        stats.put("skipped", skipped.sum());
+        stats.put("failures", failures.sum());
+        stats.put("encode", encodeLatency.toMap());
+        stats.put("cache", encoded.stats());
+        return stats;
+    }
+
+    // key: 프롬프트 캐시 키에 포함되는 이미지 식별자 (내용 해시 + 변환 설정)
+    public record VisionImage(String key, String dataUrl, String detail, int estimatedTokens) {
+    }
+}
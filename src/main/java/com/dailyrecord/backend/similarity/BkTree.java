@@ -0,0 +1,75 @@
+package com.dailyrecord.backend.similarity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 해밍 거리 기반 BK-트리. 거리 d 이내 검색 시 삼각 부등식으로 대부분의 가지를 건너뛴다.
+// 동기화하지 않으므로 호출하는 쪽에서 잠금을 잡아야 한다.
+public class BkTree {
+
+    private Node root;
+    private int size;
+
+    public void add(long hash, long id) {
+        if (root == null) {
+            root = new Node(hash, id);
+            size++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = PerceptualHash.distance(node.hash, hash);
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(hash, id));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    public List<Match> search(long hash, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        if (root == null) {
+            return matches;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = PerceptualHash.distance(node.hash, hash);
+            if (distance <= maxDistance) {
+                matches.add(new Match(node.id, distance));
+            }
+            for (Map.Entry<Integer, Node> entry : node.children.entrySet()) {
+                if (Math.abs(entry.getKey() - distance) <= maxDistance) {
+                    pending.push(entry.getValue());
+                }
+            }
+        }
+        return matches;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public record Match(long id, int distance) {
+    }
+
+    private static final class Node {
+        private final long hash;
+        private final long id;
+        private final Map<Integer, Node> children = new HashMap<>(4);
+
+        private Node(long hash, long id) {
+            this.hash = hash;
+            this.id = id;
+        }
+    }
+}
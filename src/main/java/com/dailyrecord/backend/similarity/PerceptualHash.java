@@ -0,0 +1,53 @@
+package com.dailyrecord.backend.similarity;
+
+import com.dailyrecord.backend.service.ImageResizer;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.IOException;
+import java.nio.file.Path;
+
+// 64비트 차이 해시(dHash). 9x8 흑백으로 줄인 뒤 가로로 이웃한 픽셀의 밝기 비교 결과를 비트로 담는다.
+// 크기 변경, 재압축, 약간의 밝기 변화에는 해시가 거의 변하지 않으므로 해밍 거리로 비슷한 사진을 찾을 수 있다.
+public final class PerceptualHash {
+
+    private static final int WIDTH = 9;
+    private static final int HEIGHT = 8;
+
+    private PerceptualHash() {
+    }
+
+    public static long compute(Path imageFile) throws IOException {
+        // 서브샘플링으로 작은 크기만 디코딩
+        return compute(ImageResizer.read(imageFile, 64));
+    }
+
+    public static long compute(BufferedImage image) {
+        BufferedImage gray = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = gray.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, WIDTH, HEIGHT, null);
+        } finally {
+            g.dispose();
+        }
+
+        Raster raster = gray.getRaster();
+        long hash = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH - 1; x++) {
+                hash <<= 1;
+                if (raster.getSample(x, y, 0) > raster.getSample(x + 1, y, 0)) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
@@ -0,0 +1,33 @@
+package com.dailyrecord.backend.stats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// 호출 횟수 / 평균 / 최대 지연 시간 집계
+public class LatencyStats {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public Map<String, Object> toMap() {
+        long n = count.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", n);
+        stats.put("avgMs", n == 0 ? 0.0 : totalNanos.sum() / (double) n / 1_000_000.0);
+        stats.put("maxMs", maxNanos.get() / 1_000_000.0);
+        return stats;
+    }
+}
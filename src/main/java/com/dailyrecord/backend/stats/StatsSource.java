@@ -0,0 +1,11 @@
+package com.dailyrecord.backend.stats;
+
+import java.util.Map;
+
+// /api/stats 로 노출할 내부 지표 제공자
+public interface StatsSource {
+
+    String getStatsName();
+
+    Map<String, Object> getStats();
+}
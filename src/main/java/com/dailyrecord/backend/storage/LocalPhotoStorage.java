@@ -0,0 +1,236 @@
+package com.dailyrecord.backend.storage;
+
+import com.dailyrecord.backend.model.PhotoBlob;
+import com.dailyrecord.backend.repository.PhotoBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+// 로컬 파일 시스템 저장소.
+// {root}/ab/cd/abcd...(sha256) 형태로 해시 앞자리로 디렉토리를 나누어 한 디렉토리에 파일이 몰리지 않게 한다.
+// 파일 존재 확인, 참조 수 변경, 파일 삭제는 photo_blobs 행 잠금 안에서 하므로 저장소 디렉토리를 공유하는 여러 노드에서도 안전하다.
+@Component
+public class LocalPhotoStorage implements PhotoStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalPhotoStorage.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path tempDir;
+    private final PhotoBlobRepository photoBlobRepository;
+
+    // 행 잠금을 짧게 잡도록 호출한 쪽 트랜잭션과 분리된 새 트랜잭션에서 실행
+    private final TransactionTemplate blobTransaction;
+
+    public LocalPhotoStorage(@Value("${photo.storage.root:D:/dailyrecord-Back/uploads}") String root,
+                             PhotoBlobRepository photoBlobRepository,
+                             PlatformTransactionManager transactionManager) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.tempDir = this.root.resolve(".tmp");
+        this.photoBlobRepository = photoBlobRepository;
+        this.blobTransaction = new TransactionTemplate(transactionManager);
+        this.blobTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // 업로드 디렉토리 생성
+        Files.createDirectories(tempDir);
+    }
+
+    @Override
+    public StoredContent store(InputStream in) throws IOException {
+        Path temp = tempDir.resolve(UUID.randomUUID() + ".part");
+        MessageDigest digest = sha256();
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                digest.update(buffer, 0, read);
+                size += read;
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return commit(temp, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    @Override
+    public StoredContent storeFile(Path source) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(source)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return commit(source, HexFormat.of().formatHex(digest.digest()), Files.size(source));
+    }
+
+    @Override
+    public Path tempFile(String name) {
+        Path path = tempDir.resolve(name).normalize();
+        if (!path.getParent().equals(tempDir)) {
+            throw new IllegalArgumentException("Invalid temp file name: " + name);
+        }
+        return path;
+    }
+
+    @Override
+    public Path resolve(String contentHash) {
+        return root.resolve(contentHash.substring(0, 2)).resolve(contentHash.substring(2, 4)).resolve(contentHash);
+    }
+
+    @Override
+    public Path resolveLegacy(String fileName) {
+        Path path = root.resolve(fileName).normalize();
+        if (!path.getParent().equals(root)) {
+            throw new IllegalArgumentException("Invalid file name: " + fileName);
+        }
+        return path;
+    }
+
+    @Override
+    public Path resolveDerivative(String contentHash, String variant) {
+        return resolve(contentHash).resolveSibling(contentHash + "_" + variant);
+    }
+
+    @Override
+    public Path storeDerivative(String contentHash, String variant, ContentWriter writer) throws IOException {
+        Path target = resolveDerivative(contentHash, variant);
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                writer.write(out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return target;
+    }
+
+    // 참조 수를 줄이고, 0 이 되면 행 잠금을 잡은 채로 파일과 행을 삭제
+    // (잠금을 풀고 지우면 그 사이 다른 노드가 같은 파일을 참조로 등록한 뒤 파일이 지워질 수 있음)
+    @Override
+    public void release(String contentHash) throws IOException {
+        inBlobTransaction(() -> {
+            PhotoBlob blob = photoBlobRepository.findForUpdate(contentHash).orElse(null);
+            if (blob == null) {
+                return null;
+            }
+            blob.setRefCount(Math.max(0, blob.getRefCount() - 1));
+            if (blob.getRefCount() == 0) {
+                Path original = resolve(contentHash);
+                Files.deleteIfExists(original);
+                deleteDerivatives(original.getParent(), contentHash);
+                photoBlobRepository.delete(blob);
+                logger.info("Deleted unreferenced photo content {}", contentHash);
+            }
+            return null;
+        });
+    }
+
+    private void deleteDerivatives(Path directory, String contentHash) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> derivatives = Files.newDirectoryStream(directory, contentHash + "_*")) {
+            for (Path derivative : derivatives) {
+                Files.deleteIfExists(derivative);
+            }
+        }
+    }
+
+    // 임시 파일을 해시 경로로 원자적으로 옮기고 참조 수 증가. 이미 같은 내용이 있으면 임시 파일은 버린다.
+    // 파일 확인과 참조 수 증가를 같은 행 잠금 안에서 하므로 다른 노드의 release 가 그 사이에 파일을 지울 수 없다.
+    private StoredContent commit(Path temp, String contentHash, long size) throws IOException {
+        Path target = resolve(contentHash);
+        return inBlobTransaction(() -> {
+            photoBlobRepository.insertIfAbsent(contentHash, size);
+            PhotoBlob blob = photoBlobRepository.findForUpdate(contentHash)
+                    .orElseThrow(() -> new IllegalStateException("photo_blobs row missing: " + contentHash));
+            boolean deduplicated = Files.exists(target);
+            if (deduplicated) {
+                Files.deleteIfExists(temp);
+            } else {
+                Files.createDirectories(target.getParent());
+                try {
+                    moveAtomically(temp, target);
+                } catch (FileAlreadyExistsException e) {
+                    Files.deleteIfExists(temp);
+                    deduplicated = true;
+                }
+            }
+            blob.setRefCount(blob.getRefCount() + 1);
+            return new StoredContent(contentHash, size, target, deduplicated);
+        });
+    }
+
+    private <T> T inBlobTransaction(BlobWork<T> work) throws IOException {
+        try {
+            return blobTransaction.execute(status -> {
+                try {
+                    return work.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface BlobWork<T> {
+        T run() throws IOException;
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // 다른 파일 시스템이면 같은 디렉토리에 복사한 뒤 원자적으로 이름 변경
+            Path staged = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".part");
+            try {
+                Files.copy(source, staged);
+                Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+                Files.deleteIfExists(source);
+            } catch (IOException | UncheckedIOException ex) {
+                Files.deleteIfExists(staged);
+                throw ex;
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.dailyrecord.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+// 사진 원본 저장소. 파일은 내용 해시(SHA-256)로 식별되며 같은 내용은 한 번만 저장된다.
+public interface PhotoStorage {
+
+    // 스트림을 저장하고 참조 수를 1 증가시킨다.
+    StoredContent store(InputStream in) throws IOException;
+
+    // 이미 디스크에 있는 파일(분할 업로드 등)을 저장소로 옮기고 참조 수를 1 증가시킨다.
+    StoredContent storeFile(Path source) throws IOException;
+
+    // 저장소와 같은 파일 시스템에 있는 작업용 임시 파일 경로 (분할 업로드 등)
+    Path tempFile(String name);
+
+    // 내용 해시로 파일 위치 조회
+    Path resolve(String contentHash);
+
+    // content_hash 가 없는 기존 업로드 (업로드 디렉토리에 파일 이름 그대로 저장된 파일)
+    Path resolveLegacy(String fileName);
+
+    // 원본 옆에 저장되는 파생 이미지(썸네일 등) 위치
+    Path resolveDerivative(String contentHash, String variant);
+
+    // 파생 이미지를 임시 파일에 쓴 뒤 원자적으로 이름을 바꿔 저장한다.
+    Path storeDerivative(String contentHash, String variant, ContentWriter writer) throws IOException;
+
+    // 참조 수를 1 감소시키고, 더 이상 참조가 없으면 파일과 파생 이미지를 삭제한다.
+    void release(String contentHash) throws IOException;
+
+    @FunctionalInterface
+    interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,7 @@
+package com.dailyrecord.backend.storage;
+
+import java.nio.file.Path;
+
+// 저장소에 기록된 파일 정보. deduplicated 가 true 이면 같은 내용의 파일이 이미 있어 새로 쓰지 않았다.
+public record StoredContent(String contentHash, long size, Path path, boolean deduplicated) {
+}
@@ -0,0 +1,103 @@
+package com.dailyrecord.backend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TtlCacheTest {
+
+	@Test
+	void expiredEntryIsMiss() throws InterruptedException {
+		TtlCache<String, String> cache = new TtlCache<>(10, 50);
+		cache.put("a", "1");
+		assertEquals("1", cache.get("a"));
+
+		Thread.sleep(80);
+
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void purgeExpiredRemovesOnlyExpiredEntries() throws InterruptedException {
+		TtlCache<String, String> cache = new TtlCache<>(10, 50);
+		cache.put("old", "1");
+		Thread.sleep(80);
+		cache.put("new", "2");
+
+		cache.purgeExpired();
+
+		assertEquals(1, cache.size());
+		assertEquals("2", cache.get("new"));
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedWhenFull() {
+		TtlCache<String, String> cache = new TtlCache<>(2, 60_000);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.get("a"); // a 를 최근 사용으로
+		cache.put("c", "3");
+
+		assertEquals(2, cache.size());
+		assertEquals("1", cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals("3", cache.get("c"));
+		assertEquals(1L, cache.stats().get("evictions"));
+	}
+
+	@Test
+	void computeIfAbsentDoesNotStoreNull() {
+		TtlCache<String, String> cache = new TtlCache<>(10, 60_000);
+
+		assertNull(cache.computeIfAbsent("a", key -> null));
+		assertEquals(0, cache.size());
+		assertEquals("A", cache.computeIfAbsent("a", String::toUpperCase));
+		assertEquals("A", cache.computeIfAbsent("a", key -> "other"));
+	}
+
+	@Test
+	void concurrentGetAndPutStayWithinMaxSize() throws Exception {
+		int maxSize = 100;
+		TtlCache<Integer, Integer> cache = new TtlCache<>(maxSize, 60_000);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				int offset = t * 1000;
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < 1000; i++) {
+						int key = offset + i;
+						cache.put(key, key);
+						Integer value = cache.get(key % 500 + offset);
+						if (value != null && value != key % 500 + offset) {
+							throw new AssertionError("wrong value for key " + key);
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertTrue(cache.size() <= maxSize);
+		long hits = (long) cache.stats().get("hits");
+		long misses = (long) cache.stats().get("misses");
+		assertEquals(8 * 1000L, hits + misses);
+	}
+}
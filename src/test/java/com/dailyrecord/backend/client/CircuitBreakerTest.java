@@ -0,0 +1,98 @@
+package com.dailyrecord.backend.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+	private static final long OPEN_MS = 50;
+
+	@Test
+	void staysClosedBelowMinimumCalls() {
+		CircuitBreaker breaker = new CircuitBreaker(10, 5, 0.5, OPEN_MS);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(breaker.tryAcquire());
+			breaker.onFailure();
+		}
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void opensWhenFailureRateReachesThreshold() {
+		CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, OPEN_MS);
+		breaker.onSuccess();
+		breaker.onSuccess();
+		breaker.onFailure();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+		breaker.onFailure(); // 2/4 = 50%
+
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquire());
+		assertEquals(1L, breaker.stats().get("opened"));
+		assertEquals(1L, breaker.stats().get("shortCircuited"));
+	}
+
+	@Test
+	void oldResultsLeaveTheWindow() {
+		CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.5, OPEN_MS);
+		breaker.onFailure();
+		for (int i = 0; i < 4; i++) {
+			breaker.onSuccess(); // 첫 실패가 윈도우 밖으로 밀려남
+		}
+		breaker.onFailure();
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		assertEquals(1, breaker.stats().get("windowFailures"));
+	}
+
+	@Test
+	void halfOpenAllowsSingleTrialAndClosesOnSuccess() throws InterruptedException {
+		CircuitBreaker breaker = openBreaker();
+		Thread.sleep(OPEN_MS + 20);
+
+		assertTrue(breaker.tryAcquire());
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquire()); // 시험 호출은 한 건만
+
+		breaker.onSuccess();
+
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		assertEquals(0, breaker.stats().get("windowCalls"));
+		assertTrue(breaker.tryAcquire());
+		assertTrue(breaker.tryAcquire());
+	}
+
+	@Test
+	void halfOpenFailureReopens() throws InterruptedException {
+		CircuitBreaker breaker = openBreaker();
+		Thread.sleep(OPEN_MS + 20);
+
+		assertTrue(breaker.tryAcquire());
+		breaker.onFailure();
+
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertFalse(breaker.tryAcquire());
+		assertEquals(2L, breaker.stats().get("opened"));
+	}
+
+	@Test
+	void ignoredTrialReleasesHalfOpenSlot() throws InterruptedException {
+		CircuitBreaker breaker = openBreaker();
+		Thread.sleep(OPEN_MS + 20);
+
+		assertTrue(breaker.tryAcquire());
+		breaker.onIgnored();
+
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertTrue(breaker.tryAcquire());
+	}
+
+	private static CircuitBreaker openBreaker() {
+		CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, OPEN_MS);
+		breaker.onFailure();
+		breaker.onFailure();
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		return breaker;
+	}
+}
@@ -0,0 +1,115 @@
+package com.dailyrecord.backend.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAiRateLimiterTest {
+
+	// 초당 1000 토큰: 100 토큰은 약 100ms 뒤에 다시 채워진다
+	private static final int TOKENS_PER_MINUTE = 60_000;
+
+	@Test
+	void requestBucketRefillsOverTime() {
+		OpenAiRateLimiter limiter = new OpenAiRateLimiter(600, 1_000_000, 5_000, 100); // 초당 10건
+		for (int i = 0; i < 600; i++) {
+			limiter.acquire(1L, 1);
+		}
+
+		long start = System.nanoTime();
+		limiter.acquire(1L, 1);
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertTrue(elapsedMs >= 50, "waited " + elapsedMs + "ms");
+		assertTrue(elapsedMs < 1_000, "waited " + elapsedMs + "ms");
+	}
+
+	@Test
+	void tokensAreChargedByEstimate() {
+		OpenAiRateLimiter limiter = new OpenAiRateLimiter(10_000, TOKENS_PER_MINUTE, 5_000, 100);
+		limiter.acquire(1L, TOKENS_PER_MINUTE);
+
+		long start = System.nanoTime();
+		limiter.acquire(1L, 100);
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertTrue(elapsedMs >= 50, "waited " + elapsedMs + "ms");
+		assertTrue(elapsedMs < 1_000, "waited " + elapsedMs + "ms");
+	}
+
+	@Test
+	void reconcileRefundsUnusedTokens() {
+		OpenAiRateLimiter limiter = new OpenAiRateLimiter(10_000, TOKENS_PER_MINUTE, 50, 100);
+		OpenAiRateLimiter.Permit permit = limiter.acquire(1L, TOKENS_PER_MINUTE);
+
+		permit.reconcile(TOKENS_PER_MINUTE / 2);
+
+		assertDoesNotThrow(() -> limiter.acquire(1L, TOKENS_PER_MINUTE / 2 - 100));
+	}
+
+	@Test
+	void reconcileChargesExtraTokens() {
+		OpenAiRateLimiter limiter = new OpenAiRateLimiter(10_000, TOKENS_PER_MINUTE, 50, 100);
+		OpenAiRateLimiter.Permit permit = limiter.acquire(1L, 1_000);
+
+		permit.reconcile(TOKENS_PER_MINUTE);
+
+		// 실제 사용량이 버킷을 다 써 버렸으므로 대기 시간(50ms) 안에 허용되지 않음
+		assertThrows(ResponseStatusException.class, () -> limiter.acquire(1L, 1_000));
+		assertEquals(1L, limiter.getStats().get("timedOut"));
+	}
+
+	@Test
+	void cancelReturnsRequestAndTokens() {
+		OpenAiRateLimiter limiter = new OpenAiRateLimiter(1, TOKENS_PER_MINUTE, 50, 100);
+		OpenAiRateLimiter.Permit permit = limiter.acquire(1L, TOKENS_PER_MINUTE);
+
+		permit.cancel();
+
+		assertDoesNotThrow(() -> limiter.acquire(1L, TOKENS_PER_MINUTE));
+	}
+
+	@Test
+	void rejectsWhenQueueIsFull() {
+		OpenAiRateLimiter limiter = new OpenAiRateLimiter(10_000, TOKENS_PER_MINUTE, 5_000, 0);
+
+		assertThrows(ResponseStatusException.class, () -> limiter.acquire(1L, 1));
+		assertEquals(1L, limiter.getStats().get("rejected"));
+	}
+
+	@Test
+	void membersTakeTurns() throws InterruptedException {
+		OpenAiRateLimiter limiter = new OpenAiRateLimiter(10_000, TOKENS_PER_MINUTE, 5_000, 100);
+		limiter.acquire(0L, TOKENS_PER_MINUTE); // 버킷을 비워 모두 대기하게 함
+
+		List<Long> order = Collections.synchronizedList(new ArrayList<>());
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			threads.add(start(limiter, 1L, order));
+		}
+		Thread.sleep(30); // 회원 1 의 요청이 먼저 대기열에 들어가도록
+		threads.add(start(limiter, 2L, order));
+		for (Thread thread : threads) {
+			thread.join(5_000);
+		}
+
+		assertEquals(5, order.size());
+		// 회원 1 이 먼저 4건을 쌓아 두었어도 회원 2 는 두 번째 안에 허용된다
+		assertTrue(order.indexOf(2L) <= 1, "grant order " + order);
+	}
+
+	private static Thread start(OpenAiRateLimiter limiter, Long memberId, List<Long> order) {
+		Thread thread = new Thread(() -> {
+			limiter.acquire(memberId, 100);
+			order.add(memberId);
+		});
+		thread.start();
+		return thread;
+	}
+}
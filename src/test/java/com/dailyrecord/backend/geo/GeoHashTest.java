@@ -0,0 +1,133 @@
+package com.dailyrecord.backend.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoHashTest {
+
+	private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+	@Test
+	void encodesReferenceHashes() {
+		assertEquals("wydm9", GeoHash.encode(37.5665, 126.9780, 5)); // 서울 시청
+		assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+		assertEquals("ezs42", GeoHash.encode(42.605, -5.603, 5));
+		assertEquals("s00000000000", GeoHash.encode(0, 0, GeoHash.STORED_PRECISION));
+		assertEquals("zzzzzzzzzzzz", GeoHash.encode(90, 180, GeoHash.STORED_PRECISION));
+	}
+
+	@Test
+	void encodeDecodeRoundTrip() {
+		Random random = new Random(7);
+		for (int i = 0; i < 1000; i++) {
+			double latitude = random.nextDouble() * 180 - 90;
+			double longitude = random.nextDouble() * 360 - 180;
+			for (int precision : new int[]{1, 5, 8, GeoHash.STORED_PRECISION}) {
+				String hash = GeoHash.encode(latitude, longitude, precision);
+				double[] cell = decode(hash);
+
+				assertTrue(latitude >= cell[0] && latitude <= cell[2], hash);
+				assertTrue(longitude >= cell[1] && longitude <= cell[3], hash);
+				assertEquals(GeoHash.cellHeight(precision), cell[2] - cell[0], 1e-12);
+				assertEquals(GeoHash.cellWidth(precision), cell[3] - cell[1], 1e-12);
+				// 셀 중심을 다시 인코딩하면 같은 지오해시
+				assertEquals(hash, GeoHash.encode((cell[0] + cell[2]) / 2, (cell[1] + cell[3]) / 2, precision));
+			}
+		}
+	}
+
+	@Test
+	void cellsOnBothSidesOfAntimeridianAreNeighbors() {
+		int precision = 5;
+		double width = GeoHash.cellWidth(precision);
+		Set<String> east = GeoHash.cover(10, 180 - width / 2, 10, 180, precision);
+		Set<String> west = GeoHash.cover(10, -180, 10, -180 + width / 2, precision);
+
+		assertEquals(Set.of(GeoHash.encode(10, 179.999, precision)), east);
+		assertEquals(Set.of(GeoHash.encode(10, -179.999, precision)), west);
+		double[] eastCell = decode(east.iterator().next());
+		double[] westCell = decode(west.iterator().next());
+		// 같은 위도 줄에서 경도 180 / -180 에 맞닿음
+		assertEquals(180.0, eastCell[3]);
+		assertEquals(-180.0, westCell[1]);
+		assertEquals(eastCell[0], westCell[0]);
+		assertEquals(eastCell[2], westCell[2]);
+		// 경도 180 은 동쪽 끝 셀로 인코딩
+		assertEquals(east.iterator().next(), GeoHash.encode(10, 180, precision));
+	}
+
+	@Test
+	void longitudeDeltaCoversCircleAtHighLatitude() {
+		double radius = 200_000;
+		for (double latitude : new double[]{0, 45, 70, 80, 85, -80}) {
+			double delta = GeoHash.longitudeDelta(latitude, radius);
+			double maxOffset = 0;
+			for (int bearing = 0; bearing < 360; bearing++) {
+				double[] point = destination(latitude, 0, bearing, radius);
+				maxOffset = Math.max(maxOffset, Math.abs(point[1]));
+			}
+			// 원 위의 모든 점을 포함하면서 필요 이상으로 넓지 않음
+			assertTrue(maxOffset <= delta + 1e-9, "lat " + latitude + ": " + maxOffset + " > " + delta);
+			assertTrue(delta - maxOffset < 0.05, "lat " + latitude + ": " + delta + " vs " + maxOffset);
+		}
+	}
+
+	@Test
+	void longitudeDeltaIsFullRangeWhenCircleReachesPole() {
+		assertEquals(360.0, GeoHash.longitudeDelta(89.5, 100_000));
+		assertEquals(360.0, GeoHash.longitudeDelta(-89.5, 100_000));
+		assertEquals(360.0, GeoHash.longitudeDelta(0, 20_000_000));
+		assertTrue(GeoHash.longitudeDelta(88, 100_000) < 180);
+	}
+
+	@Test
+	void distanceMetersMatchesDeltas() {
+		assertEquals(111_195, GeoHash.distanceMeters(0, 0, 1, 0), 1);
+		assertEquals(1.0, GeoHash.latitudeDelta(GeoHash.distanceMeters(0, 0, 1, 0)), 1e-9);
+	}
+
+	// 지오해시가 나타내는 셀 영역 {minLat, minLon, maxLat, maxLon} (테스트 검증용)
+	private static double[] decode(String hash) {
+		double minLat = -90, maxLat = 90;
+		double minLon = -180, maxLon = 180;
+		boolean evenBit = true;
+		for (char c : hash.toCharArray()) {
+			int ch = BASE32.indexOf(c);
+			for (int mask = 16; mask > 0; mask >>= 1) {
+				boolean set = (ch & mask) != 0;
+				if (evenBit) {
+					double mid = (minLon + maxLon) / 2;
+					if (set) {
+						minLon = mid;
+					} else {
+						maxLon = mid;
+					}
+				} else {
+					double mid = (minLat + maxLat) / 2;
+					if (set) {
+						minLat = mid;
+					} else {
+						maxLat = mid;
+					}
+				}
+				evenBit = !evenBit;
+			}
+		}
+		return new double[]{minLat, minLon, maxLat, maxLon};
+	}
+
+	// 시작점에서 방위각 bearing(도)으로 distance 만큼 이동한 지점 {lat, lon}
+	private static double[] destination(double latitude, double longitude, double bearing, double distance) {
+		double angular = distance / 6_371_000.0;
+		double lat1 = Math.toRadians(latitude);
+		double theta = Math.toRadians(bearing);
+		double lat2 = Math.asin(Math.sin(lat1) * Math.cos(angular) + Math.cos(lat1) * Math.sin(angular) * Math.cos(theta));
+		double lon2 = Math.toRadians(longitude) + Math.atan2(Math.sin(theta) * Math.sin(angular) * Math.cos(lat1),
+				Math.cos(angular) - Math.sin(lat1) * Math.sin(lat2));
+		return new double[]{Math.toDegrees(lat2), Math.toDegrees(lon2)};
+	}
+}
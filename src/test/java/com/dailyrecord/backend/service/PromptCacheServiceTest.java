@@ -0,0 +1,78 @@
+package com.dailyrecord.backend.service;
+
+import com.dailyrecord.backend.repository.AiPromptCacheRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 저장소 호출만 기록하는 가짜 저장소로 서비스가 어떤 쿼리를 어떤 인자로 부르는지 확인한다.
+// upsert 쿼리 자체(MySQL insert ... on duplicate key update)는 DB 가 있어야 검증할 수 있다.
+class PromptCacheServiceTest {
+
+	private final List<Object[]> upserts = new ArrayList<>();
+	private final List<Object[]> lookups = new ArrayList<>();
+	private final List<String> otherCalls = new ArrayList<>();
+	private PromptCacheService service;
+
+	@BeforeEach
+	void setUp() {
+		// 메모리 TTL 0 초: 항상 테이블 조회 경로를 탄다
+		service = new PromptCacheService(recordingRepository(), 10, 0, 30);
+	}
+
+	@Test
+	void putUpsertsWithFreshCreatedAt() {
+		String key = PromptCacheService.key("gpt", "system", "prompt");
+		LocalDateTime before = LocalDateTime.now();
+
+		service.put(key, "gpt", "story");
+
+		assertEquals(1, upserts.size());
+		Object[] args = upserts.get(0);
+		assertEquals(key, args[0]);
+		assertEquals("gpt", args[1]);
+		assertEquals("story", args[2]);
+		// 만료된 행이 있어도 생성 시각을 지금으로 갱신해야 다시 조회된다
+		LocalDateTime createdAt = (LocalDateTime) args[3];
+		assertFalse(createdAt.isBefore(before));
+		assertTrue(otherCalls.isEmpty(), "unexpected calls " + otherCalls);
+	}
+
+	@Test
+	void getLooksUpOnlyUnexpiredRows() {
+		String key = PromptCacheService.key("gpt", "system", "other");
+
+		assertNull(service.get(key));
+
+		assertEquals(1, lookups.size());
+		assertEquals(key, lookups.get(0)[0]);
+		LocalDateTime createdAfter = (LocalDateTime) lookups.get(0)[1];
+		long days = Duration.between(createdAfter, LocalDateTime.now()).toDays();
+		assertEquals(30, days);
+	}
+
+	private AiPromptCacheRepository recordingRepository() {
+		return (AiPromptCacheRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[]{AiPromptCacheRepository.class}, (proxy, method, args) -> {
+					switch (method.getName()) {
+						case "findByPromptHashAndCreatedAtAfter":
+							lookups.add(args);
+							return Optional.empty();
+						case "upsert":
+							upserts.add(args);
+							return 1;
+						default:
+							otherCalls.add(method.getName());
+							throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+}
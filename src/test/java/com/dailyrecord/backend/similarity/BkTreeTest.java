@@ -0,0 +1,79 @@
+package com.dailyrecord.backend.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BkTreeTest {
+
+	@Test
+	void emptyTreeFindsNothing() {
+		assertTrue(new BkTree().search(123L, 64).isEmpty());
+	}
+
+	@Test
+	void duplicateHashesAreAllReturned() {
+		BkTree tree = new BkTree();
+		tree.add(42L, 1);
+		tree.add(42L, 2);
+		tree.add(42L, 3);
+
+		assertEquals(3, tree.size());
+		assertEquals(Set.of(1L, 2L, 3L), ids(tree.search(42L, 0)));
+	}
+
+	@Test
+	void radiusSearchMatchesBruteForce() {
+		Random random = new Random(17);
+		List<Long> hashes = new ArrayList<>();
+		// 무작위 해시와, 그 주변에서 몇 비트만 바꾼 비슷한 해시를 섞음
+		for (int i = 0; i < 300; i++) {
+			long base = random.nextLong();
+			hashes.add(base);
+			for (int j = 0; j < 5; j++) {
+				long near = base;
+				int flips = random.nextInt(12);
+				for (int k = 0; k < flips; k++) {
+					near ^= 1L << random.nextInt(64);
+				}
+				hashes.add(near);
+			}
+		}
+		BkTree tree = new BkTree();
+		for (int id = 0; id < hashes.size(); id++) {
+			tree.add(hashes.get(id), id);
+		}
+		assertEquals(hashes.size(), tree.size());
+
+		for (int q = 0; q < 50; q++) {
+			long query = hashes.get(random.nextInt(hashes.size())) ^ (1L << random.nextInt(64));
+			for (int radius : new int[]{0, 1, 3, 6, 10, 20}) {
+				Set<Long> expected = new TreeSet<>();
+				for (int id = 0; id < hashes.size(); id++) {
+					if (PerceptualHash.distance(hashes.get(id), query) <= radius) {
+						expected.add((long) id);
+					}
+				}
+				List<BkTree.Match> matches = tree.search(query, radius);
+				assertEquals(expected, ids(matches));
+				for (BkTree.Match match : matches) {
+					assertEquals(PerceptualHash.distance(hashes.get((int) match.id()), query), match.distance());
+				}
+			}
+		}
+	}
+
+	private static Set<Long> ids(List<BkTree.Match> matches) {
+		Set<Long> ids = new TreeSet<>();
+		for (BkTree.Match match : matches) {
+			ids.add(match.id());
+		}
+		return ids;
+	}
+}
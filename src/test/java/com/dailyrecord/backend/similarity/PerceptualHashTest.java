@@ -0,0 +1,70 @@
+package com.dailyrecord.backend.similarity;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerceptualHashTest {
+
+	@Test
+	void identicalImagesHaveSameHash() {
+		assertEquals(PerceptualHash.compute(pattern(640, 480, false)), PerceptualHash.compute(pattern(640, 480, false)));
+	}
+
+	@Test
+	void resizedImageStaysClose() {
+		BufferedImage original = pattern(640, 480, false);
+		long hash = PerceptualHash.compute(original);
+
+		assertTrue(PerceptualHash.distance(hash, PerceptualHash.compute(resize(original, 320, 240))) <= 4);
+		assertTrue(PerceptualHash.distance(hash, PerceptualHash.compute(resize(original, 1280, 960))) <= 4);
+	}
+
+	@Test
+	void differentImageIsFar() {
+		long hash = PerceptualHash.compute(pattern(640, 480, false));
+		long inverted = PerceptualHash.compute(pattern(640, 480, true));
+
+		assertTrue(PerceptualHash.distance(hash, inverted) > 20);
+	}
+
+	@Test
+	void distanceIsHammingDistance() {
+		assertEquals(0, PerceptualHash.distance(0xF0F0L, 0xF0F0L));
+		assertEquals(64, PerceptualHash.distance(0L, -1L));
+		assertEquals(2, PerceptualHash.distance(0b1010L, 0b0000L));
+	}
+
+	// 부드러운 명암 변화가 있는 결정적인 테스트 이미지
+	private static BufferedImage pattern(int width, int height, boolean invert) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				double u = (double) x / width;
+				double v = (double) y / height;
+				int gray = (int) (127.5 + 127.5 * Math.sin(u * 7.0 + Math.cos(v * 5.0) * 2.0) * Math.cos(v * 3.0));
+				if (invert) {
+					gray = 255 - gray;
+				}
+				image.setRGB(x, y, (gray << 16) | (gray << 8) | gray);
+			}
+		}
+		return image;
+	}
+
+	private static BufferedImage resize(BufferedImage source, int width, int height) {
+		BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = resized.createGraphics();
+		try {
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(source, 0, 0, width, height, null);
+		} finally {
+			g.dispose();
+		}
+		return resized;
+	}
+}
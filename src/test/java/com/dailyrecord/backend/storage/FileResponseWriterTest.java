@@ -0,0 +1,51 @@
+package com.dailyrecord.backend.storage;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileResponseWriterTest {
+
+	private static final long LENGTH = 1000;
+
+	@Test
+	void closedRange() {
+		assertArrayEquals(new long[]{0, 499}, FileResponseWriter.parseRange("bytes=0-499", LENGTH));
+		assertArrayEquals(new long[]{500, 999}, FileResponseWriter.parseRange("bytes=500-999", LENGTH));
+	}
+
+	@Test
+	void openEndedRangeRunsToEndOfFile() {
+		assertArrayEquals(new long[]{900, 999}, FileResponseWriter.parseRange("bytes=900-", LENGTH));
+	}
+
+	@Test
+	void suffixRangeReturnsLastBytes() {
+		assertArrayEquals(new long[]{500, 999}, FileResponseWriter.parseRange("bytes=-500", LENGTH));
+		// 파일보다 긴 suffix 는 파일 전체
+		assertArrayEquals(new long[]{0, 999}, FileResponseWriter.parseRange("bytes=-5000", LENGTH));
+	}
+
+	@Test
+	void endPastEofIsClamped() {
+		assertArrayEquals(new long[]{990, 999}, FileResponseWriter.parseRange("bytes=990-5000", LENGTH));
+	}
+
+	@Test
+	void unsatisfiableRangeIsRejected() {
+		// null -> 416
+		assertNull(FileResponseWriter.parseRange("bytes=1000-", LENGTH));
+		assertNull(FileResponseWriter.parseRange("bytes=2000-3000", LENGTH));
+		assertNull(FileResponseWriter.parseRange("bytes=500-100", LENGTH));
+		assertNull(FileResponseWriter.parseRange("bytes=-0", LENGTH));
+	}
+
+	@Test
+	void unsupportedRangeFallsBackToFullContent() {
+		// 빈 배열 -> 200 으로 전체 전송
+		assertEquals(0, FileResponseWriter.parseRange("bytes=0-99,200-299", LENGTH).length);
+		assertEquals(0, FileResponseWriter.parseRange("items=0-10", LENGTH).length);
+		assertEquals(0, FileResponseWriter.parseRange("bytes=abc-def", LENGTH).length);
+		assertEquals(0, FileResponseWriter.parseRange("bytes=100", LENGTH).length);
+	}
+}